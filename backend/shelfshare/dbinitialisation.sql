@@ -2,14 +2,5 @@ create database shelfshare;
 
 USE shelfshare;
 
-CREATE TABLE IF NOT EXISTS reviews (
-    id INT AUTO_INCREMENT PRIMARY KEY,
-    ratings INT NOT NULL,
-    user_id INT NOT NULL,
-    book_id INT NOT NULL,
-    FOREIGN KEY (user_id) REFERENCES users(user_id),
-    FOREIGN KEY (book_id) REFERENCES books(book_id)
-);
-
-ALTER TABLE user_enlisted_books
-ADD COLUMN ratings INT;ev
\ No newline at end of file
+-- Tables, indexes and data fixes are applied by Flyway from src/main/resources/db/migration,
+-- either on application startup or out of band (see application.properties).
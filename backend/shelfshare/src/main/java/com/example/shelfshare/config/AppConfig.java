@@ -2,14 +2,35 @@ package com.example.shelfshare.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.core.env.Environment;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 public class AppConfig {
-    
+
+    // The Python summarizer serves both /get_summarized_text and /get_master_title, so they share
+    // one pool, bulkhead and breaker.
+    @Bean
+    public DownstreamClient summarizerClient(Environment environment, MeterRegistry meterRegistry) {
+        return DownstreamClient.create("summarizer", settings(environment, "summarizer", 60000), meterRegistry);
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public DownstreamClient pincodeClient(Environment environment, MeterRegistry meterRegistry) {
+        return DownstreamClient.create("pincode", settings(environment, "pincode", 5000), meterRegistry);
     }
 
+    private static DownstreamClient.Settings settings(Environment environment, String downstream, int defaultReadTimeoutMs) {
+        String prefix = "shelfshare.http." + downstream + ".";
+        return new DownstreamClient.Settings(
+            environment.getProperty(prefix + "connect-timeout-ms", Integer.class, 2000),
+            environment.getProperty(prefix + "read-timeout-ms", Integer.class, defaultReadTimeoutMs),
+            environment.getProperty(prefix + "max-connections", Integer.class, 10),
+            environment.getProperty(prefix + "max-concurrent-calls", Integer.class, 8),
+            environment.getProperty(prefix + "bulkhead-wait-ms", Long.class, 100L),
+            environment.getProperty(prefix + "failure-threshold", Integer.class, 5),
+            environment.getProperty(prefix + "open-ms", Long.class, 30000L)
+        );
+    }
 }
@@ -0,0 +1,207 @@
+package com.example.shelfshare.config;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// HTTP client for one downstream service. Each downstream gets its own keep-alive connection
+// pool and deadlines, a semaphore bulkhead so a slow dependency cannot tie up every request
+// thread, and a circuit breaker that rejects calls immediately while the dependency is failing.
+// Callers already fall back on any exception, so an open breaker just reaches the fallback sooner.
+public class DownstreamClient implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DownstreamClient.class);
+
+    public enum CircuitState { CLOSED, HALF_OPEN, OPEN }
+
+    public record Settings(
+        int connectTimeoutMs,
+        int readTimeoutMs,
+        int maxConnections,
+        int maxConcurrentCalls,
+        long bulkheadWaitMs,
+        int failureThreshold,
+        long openMs
+    ) {}
+
+    private final String name;
+    private final Settings settings;
+    private final CloseableHttpClient httpClient;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final RestTemplate restTemplate;
+    private final Semaphore bulkhead;
+    private final MeterRegistry meterRegistry;
+
+    // guarded by this
+    private CircuitState state = CircuitState.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAt = 0;
+    private boolean probeInFlight = false;
+
+    // Gauges read the client itself, so they are registered only once it is fully constructed.
+    public static DownstreamClient create(String name, Settings settings, MeterRegistry meterRegistry) {
+        DownstreamClient client = new DownstreamClient(name, settings, meterRegistry);
+        client.registerMeters();
+        return client;
+    }
+
+    private DownstreamClient(String name, Settings settings, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.settings = settings;
+        this.meterRegistry = meterRegistry;
+        this.bulkhead = new Semaphore(Math.max(1, settings.maxConcurrentCalls()));
+
+        this.connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(settings.maxConnections())
+            .setMaxConnPerRoute(settings.maxConnections())
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(settings.connectTimeoutMs()))
+                .setSocketTimeout(Timeout.ofMilliseconds(settings.readTimeoutMs()))
+                .setTimeToLive(TimeValue.ofMinutes(5))
+                .build())
+            .build();
+        this.httpClient = HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(settings.connectTimeoutMs()))
+                .setResponseTimeout(Timeout.ofMilliseconds(settings.readTimeoutMs()))
+                .build())
+            .evictIdleConnections(TimeValue.ofSeconds(30))
+            .build();
+        this.restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    private void registerMeters() {
+        Gauge.builder("shelfshare.downstream.in-flight", bulkhead, b -> settings.maxConcurrentCalls() - b.availablePermits())
+            .tag("downstream", name).register(meterRegistry);
+        Gauge.builder("shelfshare.downstream.circuit.state", this, client -> client.getState().ordinal())
+            .description("0 closed, 1 half-open, 2 open")
+            .tag("downstream", name).register(meterRegistry);
+        Gauge.builder("shelfshare.downstream.connections.leased", connectionManager, cm -> cm.getTotalStats().getLeased())
+            .tag("downstream", name).register(meterRegistry);
+        Gauge.builder("shelfshare.downstream.connections.available", connectionManager, cm -> cm.getTotalStats().getAvailable())
+            .tag("downstream", name).register(meterRegistry);
+    }
+
+    // Runs one call against the downstream. Throws DownstreamUnavailableException without calling
+    // it when the breaker is open or the bulkhead stays full for bulkheadWaitMs.
+    public <T> T execute(Function<RestTemplate, T> call) {
+        if (!allowRequest()) {
+            record("short_circuited", 0);
+            throw new DownstreamUnavailableException(name + " circuit is open");
+        }
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(settings.bulkheadWaitMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            releaseProbe();
+            throw new DownstreamUnavailableException(name + " call interrupted");
+        }
+        if (!acquired) {
+            releaseProbe();
+            record("rejected", 0);
+            throw new DownstreamUnavailableException(name + " has " + settings.maxConcurrentCalls() + " calls in flight");
+        }
+
+        long started = System.nanoTime();
+        try {
+            T result = call.apply(restTemplate);
+            onSuccess();
+            record("success", System.nanoTime() - started);
+            return result;
+        } catch (ResourceAccessException | HttpServerErrorException e) {
+            // timeouts, refused connections and 5xx mean the dependency is unhealthy; 4xx does not
+            onFailure();
+            record("failure", System.nanoTime() - started);
+            throw e;
+        } catch (RuntimeException e) {
+            onSuccess();
+            record("error", System.nanoTime() - started);
+            throw e;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    public synchronized CircuitState getState() {
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private synchronized boolean allowRequest() {
+        if (state == CircuitState.OPEN && System.currentTimeMillis() - openedAt >= settings.openMs()) {
+            state = CircuitState.HALF_OPEN;
+        }
+        if (state == CircuitState.HALF_OPEN) {
+            // one probe call decides whether to close again
+            if (probeInFlight) {
+                return false;
+            }
+            probeInFlight = true;
+            return true;
+        }
+        return state == CircuitState.CLOSED;
+    }
+
+    private synchronized void releaseProbe() {
+        probeInFlight = false;
+    }
+
+    private synchronized void onSuccess() {
+        if (state != CircuitState.CLOSED) {
+            logger.info("Downstream {} recovered, closing circuit", name);
+        }
+        state = CircuitState.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    private synchronized void onFailure() {
+        consecutiveFailures++;
+        probeInFlight = false;
+        if (state == CircuitState.HALF_OPEN || consecutiveFailures >= settings.failureThreshold()) {
+            if (state != CircuitState.OPEN) {
+                logger.warn("Downstream {} failed {} times in a row, opening circuit for {} ms", name, consecutiveFailures, settings.openMs());
+            }
+            state = CircuitState.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    private void record(String outcome, long nanos) {
+        Timer.builder("shelfshare.downstream.calls")
+            .tag("downstream", name)
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void close() throws IOException {
+        httpClient.close();
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.shelfshare.config;
+
+// Thrown instead of calling a downstream whose circuit is open or whose bulkhead is full.
+public class DownstreamUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DownstreamUnavailableException(String message) {
+        super(message);
+    }
+}
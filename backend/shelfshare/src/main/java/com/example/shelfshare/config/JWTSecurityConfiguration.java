@@ -71,6 +71,7 @@ public class JWTSecurityConfiguration {
     @Order(3)
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.authorizeHttpRequests((authorize) -> authorize
+                        .requestMatchers("/admin/**").hasRole("ADMIN")
                         .requestMatchers("/books/enlist/**").authenticated()
                         .requestMatchers("/books/add").authenticated()
                         .requestMatchers("/user/changeUserPassword").permitAll()
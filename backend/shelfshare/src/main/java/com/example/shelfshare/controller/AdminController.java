@@ -0,0 +1,62 @@
+package com.example.shelfshare.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.shelfshare.entity.BackfillCheckpoint;
+import com.example.shelfshare.model.BackfillStatusResponse;
+import com.example.shelfshare.model.MessageResponse;
+import com.example.shelfshare.service.SummaryBackfillService;
+
+@RestController
+@RequestMapping("/admin")
+@CrossOrigin(origins = "http://localhost:5173")
+public class AdminController {
+
+    @Autowired
+    private SummaryBackfillService summaryBackfillService;
+
+    @PostMapping("/summaries/backfill")
+    public ResponseEntity<MessageResponse> startSummaryBackfill(@RequestParam(defaultValue = "false") boolean restart) {
+        if (!summaryBackfillService.start(restart)) {
+            return new ResponseEntity<MessageResponse>(new MessageResponse("Summary backfill is already running"), HttpStatus.CONFLICT);
+        }
+        return new ResponseEntity<MessageResponse>(new MessageResponse("Summary backfill started"), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/summaries/backfill")
+    public ResponseEntity<BackfillStatusResponse> getSummaryBackfillStatus() {
+        var checkpoint = summaryBackfillService.getStatus();
+        if (checkpoint.isEmpty()) {
+            return new ResponseEntity<BackfillStatusResponse>(
+                new BackfillStatusResponse(SummaryBackfillService.JOB_NAME, null, null, null, null, null, null, "Summary backfill has never run"),
+                HttpStatus.NOT_FOUND
+            );
+        }
+        BackfillCheckpoint status = checkpoint.get();
+        return new ResponseEntity<BackfillStatusResponse>(new BackfillStatusResponse(
+            status.getJobName(),
+            status.getStatus().name(),
+            status.getLastBookId(),
+            status.getProcessedBooks(),
+            status.getFailedBooks(),
+            status.getStartedAt().toString(),
+            status.getUpdatedAt().toString(),
+            null
+        ), HttpStatus.OK);
+    }
+
+    @DeleteMapping("/summaries/backfill")
+    public ResponseEntity<MessageResponse> stopSummaryBackfill() {
+        summaryBackfillService.stop();
+        return new ResponseEntity<MessageResponse>(new MessageResponse("Summary backfill will stop after the current chunk"), HttpStatus.ACCEPTED);
+    }
+}
@@ -2,6 +2,7 @@ package com.example.shelfshare.controller;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -10,11 +11,15 @@ import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 
-import com.example.shelfshare.entity.Books;
 import com.example.shelfshare.model.AnonymousBookResponse;
+import com.example.shelfshare.model.BookCursor;
+import com.example.shelfshare.model.BookListingView;
+import com.example.shelfshare.model.BookPageResponse;
+import com.example.shelfshare.model.LatestNoteView;
 import com.example.shelfshare.service.BookService;
 import com.example.shelfshare.service.NotesService;
 
@@ -36,47 +41,79 @@ public class AnonymousBookController {
     }
 
     @GetMapping
-    public ResponseEntity<List<AnonymousBookResponse>> getAllBooks() {
-        List<Books> bookList = bookService.getAllAvailableBooks();
-        List<AnonymousBookResponse> anonymousBookResponses = new ArrayList<>();
-        for (Books book : bookList) {
-            anonymousBookResponses.add(buildAnonymousBookResponse(book, "Book details retrieved successfully!"));
+    public ResponseEntity<Object> getAllBooks(@RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer size,
+                                              @RequestParam(defaultValue = "false") boolean unpaged) {
+        if (unpaged) {
+            List<BookListingView> bookList = bookService.getAvailableBookListings();
+            List<AnonymousBookResponse> anonymousBookResponses = buildAnonymousBookResponses(bookList, "Book details retrieved successfully!");
+            return new ResponseEntity<>(anonymousBookResponses, HttpStatus.OK);
+        }
+
+        BookCursor after;
+        try {
+            after = BookCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new BookPageResponse<AnonymousBookResponse>("Invalid cursor"), HttpStatus.BAD_REQUEST);
         }
-        return new ResponseEntity<>(anonymousBookResponses, HttpStatus.OK);
+        int pageSize = bookService.resolvePageSize(size);
+        List<BookListingView> page = bookService.getAvailableBookListingsPage(after.lastBookId(), pageSize);
+        boolean hasMore = page.size() > pageSize;
+        if (hasMore) {
+            page = page.subList(0, pageSize);
+        }
+
+        List<AnonymousBookResponse> anonymousBookResponses = buildAnonymousBookResponses(page, "Book details retrieved successfully!");
+        String nextCursor = hasMore ? new BookCursor(page.get(page.size() - 1).bookId()).encode() : null;
+        return new ResponseEntity<>(
+            new BookPageResponse<>(anonymousBookResponses, nextCursor, pageSize, "Books retrieved successfully!"),
+            HttpStatus.OK);
     }
 
     @GetMapping("/{bookId}")
     public ResponseEntity<AnonymousBookResponse> getAnonymousBookById(@PathVariable Integer bookId) {
-        var bookOptional = bookService.getBookById(bookId);
+        var bookOptional = bookService.getBookListingById(bookId);
         if (bookOptional.isEmpty()) {
             return new ResponseEntity<AnonymousBookResponse>(
                 new AnonymousBookResponse("Book not found"),
                 HttpStatus.NOT_FOUND);
         }
-        Books book = bookOptional.get();
+        BookListingView book = bookOptional.get();
+        var latestNote = notesService.getMostRecentNotesForBooks(List.of(bookId)).get(bookId);
         return new ResponseEntity<AnonymousBookResponse>(
-            buildAnonymousBookResponse(book, "Book details retrieved successfully"),
+            buildAnonymousBookResponse(book, latestNote, "Book details retrieved successfully"),
             HttpStatus.OK
         );
     }
 
-    public AnonymousBookResponse buildAnonymousBookResponse(Books book, String message) {
-        var summarizedNoteContent = book.getSummarizedNoteContent(); // Get directly from Book
-        String master_title = book.getMasterCustomTitle();
+    private List<AnonymousBookResponse> buildAnonymousBookResponses(List<BookListingView> books, String message) {
+        List<Integer> bookIds = new ArrayList<>();
+        for (BookListingView book : books) {
+            bookIds.add(book.bookId());
+        }
+        Map<Integer, LatestNoteView> latestNotes = notesService.getMostRecentNotesForBooks(bookIds);
+
+        List<AnonymousBookResponse> anonymousBookResponses = new ArrayList<>();
+        for (BookListingView book : books) {
+            anonymousBookResponses.add(buildAnonymousBookResponse(book, latestNotes.get(book.bookId()), message));
+        }
+        return anonymousBookResponses;
+    }
+
+    public AnonymousBookResponse buildAnonymousBookResponse(BookListingView book, LatestNoteView latestNote, String message) {
+        var summarizedNoteContent = book.summarizedNoteContent(); // Get directly from Book
+        String master_title = book.masterCustomTitle();
 
-        var notes = notesService.getMostRecentNoteForBook(book.getBookId());
-        
-        var currentOwner = book.getCurrentOwner();
         return new AnonymousBookResponse(
-            book.getBookId(),
-            book.getBookGenre().name(),
-            book.getAuthorName(),
-            currentOwner.getUsername(),
-            currentOwner.getName(),
-            currentOwner.getArea(),
-            currentOwner.getCity(),
-            currentOwner.getState(),
-            notes.isPresent() ? notes.get().getNoteId() : null,
+            book.bookId(),
+            book.bookGenre().name(),
+            book.authorName(),
+            book.ownerUsername(),
+            book.ownerName(),
+            book.ownerArea(),
+            book.ownerCity(),
+            book.ownerState(),
+            latestNote != null ? latestNote.getNoteId() : null,
             master_title,
             summarizedNoteContent,
             message
@@ -1,7 +1,12 @@
 package com.example.shelfshare.controller;
 
+import com.example.shelfshare.model.BookCursor;
+import com.example.shelfshare.model.BookListingView;
+import com.example.shelfshare.model.BookPageResponse;
 import com.example.shelfshare.model.BookResponse;
 import com.example.shelfshare.model.MessageResponse;
+import com.example.shelfshare.model.OwnershipHistoryResponse;
+import com.example.shelfshare.model.OwnershipTransferView;
 import com.example.shelfshare.repository.NotesRepository;
 import com.example.shelfshare.model.BookRequest;
 import com.example.shelfshare.service.BookService;
@@ -10,8 +15,8 @@ import com.example.shelfshare.service.NotesService;
 import java.security.Principal;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -75,13 +80,39 @@ public class BookController {
     }
 
     @GetMapping // This endpoint will now return only AVAILABLE books, it doesnt return books which are enlisted like previous one
-    public ResponseEntity<List<BookResponse>> getAllBooks() {
-        List<Books> availableBooksEntities = bookService.getAllAvailableBooks();
+    public ResponseEntity<Object> getAllBooks(@RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer size,
+                                              @RequestParam(defaultValue = "false") boolean unpaged) {
+        if (unpaged) { // old clients still get the full catalog as a plain list
+            List<BookListingView> availableBooks = bookService.getAvailableBookListings();
+            List<BookResponse> bookResponses = new ArrayList<>();
+            for (BookListingView book : availableBooks) {
+                bookResponses.add(buildBookResponse(book, "Book details retrieved successfully"));
+            }
+            return new ResponseEntity<>(bookResponses, HttpStatus.OK);
+        }
+
+        BookCursor after;
+        try {
+            after = BookCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new BookPageResponse<BookResponse>("Invalid cursor"), HttpStatus.BAD_REQUEST);
+        }
+        int pageSize = bookService.resolvePageSize(size);
+        List<BookListingView> page = bookService.getAvailableBookListingsPage(after.lastBookId(), pageSize);
+        boolean hasMore = page.size() > pageSize;
+        if (hasMore) {
+            page = page.subList(0, pageSize);
+        }
+
         List<BookResponse> bookResponses = new ArrayList<>();
-        for (Books book : availableBooksEntities) {
+        for (BookListingView book : page) {
             bookResponses.add(buildBookResponse(book, "Book details retrieved successfully"));
         }
-        return new ResponseEntity<>(bookResponses, HttpStatus.OK);
+        String nextCursor = hasMore ? new BookCursor(page.get(page.size() - 1).bookId()).encode() : null;
+        return new ResponseEntity<>(
+            new BookPageResponse<>(bookResponses, nextCursor, pageSize, "Books retrieved successfully"),
+            HttpStatus.OK);
     }
 
     @GetMapping("/my-books") //will only send those books which are enlisted by user
@@ -89,10 +120,10 @@ public class BookController {
         if (principal == null) {
             return new ResponseEntity<>(null, HttpStatus.UNAUTHORIZED);
         }
-        List<Books> myBooksEntities = bookService.getMyBooks(principal.getName());
+        List<BookListingView> myBooks = bookService.getMyBookListings(principal.getName());
         List<BookResponse> bookResponses = new ArrayList<>();
 
-        for (Books book : myBooksEntities) {
+        for (BookListingView book : myBooks) {
             bookResponses.add(buildBookResponse(book, "Books you own!")); // Using the helper method
         }
         return new ResponseEntity<>(bookResponses, HttpStatus.OK);
@@ -101,49 +132,58 @@ public class BookController {
     
     @GetMapping("/{bookId}")
     public ResponseEntity<BookResponse> getBookById(@PathVariable Integer bookId) {
-        var bookOptional = bookService.getBookById(bookId); // Renamed for clarity
+        var bookOptional = bookService.getBookListingById(bookId); // Renamed for clarity
         if (bookOptional.isEmpty()) {
             return new ResponseEntity<BookResponse>(
                 new BookResponse("Book not found"),
                 HttpStatus.NOT_FOUND);
         }
-        Books book = bookOptional.get();
+        BookListingView book = bookOptional.get();
         return new ResponseEntity<BookResponse>(
             buildBookResponse(book, "Book details retrieved successfully"), // Using the helper method
             HttpStatus.OK
         );
     }
-    
-    private BookResponse buildBookResponse(Books book, String message) {
-        List<String> previousOwners = new ArrayList<>();
-        if (book.getPreviousOwners() != null) {
-            previousOwners = book.getPreviousOwners()
-                .stream()
-                .map(owner -> owner.getUsername())
-                .collect(Collectors.toList());
-        }
-        var currentOwner = (book.getCurrentOwner() != null) ? book.getCurrentOwner() : null;
 
-        String summarizedNoteContent = book.getSummarizedNoteContent(); // Get from entity
+    // Full ownership history, paged; listings only carry the most recent previous owners.
+    @GetMapping("/{bookId}/previousOwners")
+    public ResponseEntity<OwnershipHistoryResponse> getPreviousOwners(@PathVariable Integer bookId,
+                                                                      @RequestParam(required = false) Long afterTransferId,
+                                                                      @RequestParam(required = false) Integer size) {
+        int pageSize = bookService.resolvePageSize(size);
+        var pageOptional = bookService.getOwnershipHistoryPage(bookId, afterTransferId, pageSize);
+        if (pageOptional.isEmpty()) {
+            return new ResponseEntity<>(new OwnershipHistoryResponse("Book not found"), HttpStatus.NOT_FOUND);
+        }
+        List<OwnershipTransferView> page = pageOptional.get();
+        boolean hasMore = page.size() > pageSize;
+        if (hasMore) {
+            page = page.subList(0, pageSize);
+        }
+        Long nextAfterTransferId = hasMore ? page.get(page.size() - 1).transferId() : null;
+        return new ResponseEntity<>(
+            new OwnershipHistoryResponse(page, nextAfterTransferId, pageSize, "Ownership history retrieved successfully"),
+            HttpStatus.OK);
+    }
     
-        String master_title = book.getMasterCustomTitle();
-        
+    private BookResponse buildBookResponse(BookListingView book, String message) {
         return new BookResponse(
-            book.getBookId(),
-            book.getBookTitle(),
-            book.getAuthorName(),
-            book.getBookGenre().name(),
-            book.getPublicationYear(),
-            book.getBookStatus().name(),
-            book.getEnlisted(),
-            currentOwner != null ? currentOwner.getUsername() : null,
-            currentOwner != null ? currentOwner.getName() : null,
-            previousOwners,
-            currentOwner != null ? currentOwner.getArea() : null,
-            currentOwner != null ? currentOwner.getCity() : null,
-            currentOwner != null ? currentOwner.getState() : null,
-            summarizedNoteContent,
-            master_title,
+            book.bookId(),
+            book.bookTitle(),
+            book.authorName(),
+            book.bookGenre().name(),
+            book.publicationYear(),
+            book.bookStatus().name(),
+            book.enlisted(),
+            book.ownerUsername(),
+            book.ownerName(),
+            book.previousOwners(),
+            book.previousOwnerCount(),
+            book.ownerArea(),
+            book.ownerCity(),
+            book.ownerState(),
+            book.summarizedNoteContent(),
+            book.masterCustomTitle(),
             message
         );
     }
@@ -168,7 +208,12 @@ public class BookController {
             return new ResponseEntity<>(new MessageResponse("You cannot borrow your own book"), HttpStatus.BAD_REQUEST);
         }
 
-        boolean bookBorrowedStatus = bookService.borrowBook(bookId, principal.getName());
+        boolean bookBorrowedStatus;
+        try {
+            bookBorrowedStatus = bookService.borrowBook(bookId, principal.getName());
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(new MessageResponse("Book has already been requested by someone else"), HttpStatus.CONFLICT);
+        }
         if (!bookBorrowedStatus) {
             return new ResponseEntity<>(new MessageResponse("Failed to send borrow request"), HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -188,7 +233,12 @@ public class BookController {
             return new ResponseEntity<>(new MessageResponse("User not found"), HttpStatus.NOT_FOUND);
         }
         var user = userOptional.get();
-        boolean approvalStatus = bookService.approveBorrowRequest(bookLendApprovalRequest.bookId(), bookLendApprovalRequest.requesterUserId(), user.getUserId());
+        boolean approvalStatus;
+        try {
+            approvalStatus = bookService.approveBorrowRequest(bookLendApprovalRequest.bookId(), bookLendApprovalRequest.requesterUserId(), user.getUserId());
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(new MessageResponse("Borrow request is no longer pending"), HttpStatus.CONFLICT);
+        }
         if (!approvalStatus) {
             return new ResponseEntity<>(new MessageResponse("Failed to approve borrow request"), HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -208,7 +258,12 @@ public class BookController {
             return new ResponseEntity<>(new MessageResponse("User not found"), HttpStatus.NOT_FOUND);
         }
         var user = userOptional.get();
-        boolean rejectionStatus = bookService.rejectBorrowRequest(bookLendRejectionRequest.bookId(), bookLendRejectionRequest.requesterUserId(), user.getUserId());
+        boolean rejectionStatus;
+        try {
+            rejectionStatus = bookService.rejectBorrowRequest(bookLendRejectionRequest.bookId(), bookLendRejectionRequest.requesterUserId(), user.getUserId());
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(new MessageResponse("Borrow request is no longer pending"), HttpStatus.CONFLICT);
+        }
         if (!rejectionStatus) {
             return new ResponseEntity<>(new MessageResponse("Failed to reject borrow request"), HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -220,10 +275,10 @@ public class BookController {
         if (principal == null) {
             return new ResponseEntity<>(null, HttpStatus.UNAUTHORIZED);
         }
-        List<Books> booksOwned = bookService.getBooksBorrowed(principal.getName());
+        List<BookListingView> booksOwned = bookService.getBorrowedBookListings(principal.getName());
         List<BookResponse> bookResponses = new ArrayList<>();
 
-        for (Books book : booksOwned) {
+        for (BookListingView book : booksOwned) {
             bookResponses.add(buildBookResponse(book, "Books you borrowed!"));
         }
         return new ResponseEntity<>(bookResponses, HttpStatus.OK);
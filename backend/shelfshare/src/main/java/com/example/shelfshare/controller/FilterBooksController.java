@@ -2,7 +2,7 @@ package com.example.shelfshare.controller;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -10,12 +10,17 @@ import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.shelfshare.entity.BookGenre;
 import com.example.shelfshare.entity.BookStatus;
-import com.example.shelfshare.entity.Books;
+import com.example.shelfshare.model.BookCursor;
+import com.example.shelfshare.model.BookListingView;
+import com.example.shelfshare.model.BookPageResponse;
 import com.example.shelfshare.model.BookResponse;
+import com.example.shelfshare.model.BookSearchCriteria;
+import com.example.shelfshare.model.LatestNoteView;
 import com.example.shelfshare.service.BookService;
 import com.example.shelfshare.service.NotesService;
 
@@ -38,12 +43,9 @@ public class FilterBooksController {
             return new ResponseEntity<>("State name cannot be empty or just spaces. Please provide a valid state.", HttpStatus.BAD_REQUEST);
         }
 
-        List<Books> filteredBooksEntities = bookService.getBooksByOwnerState(normalizedStateName);
+        List<BookListingView> filteredBooks = bookService.searchBooks(BookSearchCriteria.byOwnerState(normalizedStateName));
 
-        List<BookResponse> bookResponses = new ArrayList<>();
-        for (Books book : filteredBooksEntities) {
-            bookResponses.add(buildBookResponse(book, "Books filtered by owner's state retrieved successfully"));
-        }
+        List<BookResponse> bookResponses = buildBookResponses(filteredBooks, "Books filtered by owner's state retrieved successfully");
 
         return new ResponseEntity<>(bookResponses, HttpStatus.OK);
     }
@@ -54,11 +56,8 @@ public class FilterBooksController {
         if (normalizedCountryName.isEmpty()) {
             return new ResponseEntity<>("Country name cannot be empty or just spaces. Please provide a valid country.", HttpStatus.BAD_REQUEST);
         }
-        List<Books> filteredBooksEntities = bookService.getBooksByOwnerCountry(normalizedCountryName);
-        List<BookResponse> bookResponses = new ArrayList<>();
-        for (Books book : filteredBooksEntities) {
-            bookResponses.add(buildBookResponse(book, "Books filtered by owner's country retrieved successfully"));
-        }
+        List<BookListingView> filteredBooks = bookService.searchBooks(BookSearchCriteria.byOwnerCountry(normalizedCountryName));
+        List<BookResponse> bookResponses = buildBookResponses(filteredBooks, "Books filtered by owner's country retrieved successfully");
         return new ResponseEntity<>(bookResponses, HttpStatus.OK);
     }
 
@@ -68,11 +67,8 @@ public class FilterBooksController {
         if (normalizedAreaName.isEmpty()) {
             return new ResponseEntity<>("Area name cannot be empty or just spaces. Please provide a valid area.", HttpStatus.BAD_REQUEST);
         }
-        List<Books> filteredBooksEntities = bookService.getBooksByOwnerArea(normalizedAreaName);
-        List<BookResponse> bookResponses = new ArrayList<>();
-        for (Books book : filteredBooksEntities) {
-            bookResponses.add(buildBookResponse(book, "Books filtered by owner's area retrieved successfully"));
-        }
+        List<BookListingView> filteredBooks = bookService.searchBooks(BookSearchCriteria.byOwnerArea(normalizedAreaName));
+        List<BookResponse> bookResponses = buildBookResponses(filteredBooks, "Books filtered by owner's area retrieved successfully");
         return new ResponseEntity<>(bookResponses, HttpStatus.OK);
     }
 
@@ -83,11 +79,8 @@ public class FilterBooksController {
         if (normalizedCityName.isEmpty()) {
             return new ResponseEntity<>("City name cannot be empty or just spaces. Please provide a valid city.", HttpStatus.BAD_REQUEST);
         }
-        List<Books> filteredBooksEntities = bookService.getBooksByOwnerCity(normalizedCityName);
-        List<BookResponse> bookResponses = new ArrayList<>();
-        for (Books book : filteredBooksEntities) {
-            bookResponses.add(buildBookResponse(book, "Books filtered by owner's city retrieved successfully"));
-        }
+        List<BookListingView> filteredBooks = bookService.searchBooks(BookSearchCriteria.byOwnerCity(normalizedCityName));
+        List<BookResponse> bookResponses = buildBookResponses(filteredBooks, "Books filtered by owner's city retrieved successfully");
         return new ResponseEntity<>(bookResponses, HttpStatus.OK);
     }
 
@@ -97,11 +90,8 @@ public class FilterBooksController {
         if (normalizedAuthorName.isEmpty()) {
             return new ResponseEntity<>("Author name cannot be empty or just spaces. Please provide a valid author name.", HttpStatus.BAD_REQUEST);
         }
-        List<Books> filteredBooksEntities = bookService.getBooksByAuthorName(normalizedAuthorName);
-        List<BookResponse> bookResponses = new ArrayList<>();
-        for (Books book : filteredBooksEntities) {
-            bookResponses.add(buildBookResponse(book, "Books filtered by author name retrieved successfully"));
-        }
+        List<BookListingView> filteredBooks = bookService.searchBooks(BookSearchCriteria.byAuthorName(normalizedAuthorName));
+        List<BookResponse> bookResponses = buildBookResponses(filteredBooks, "Books filtered by author name retrieved successfully");
         return new ResponseEntity<>(bookResponses, HttpStatus.OK);
     }
 
@@ -111,11 +101,8 @@ public class FilterBooksController {
         if (normalizedPincode.isEmpty()) {
             return new ResponseEntity<>("Pincode cannot be empty or just spaces. Please provide a valid pincode.", HttpStatus.BAD_REQUEST);
         }
-        List<Books> filteredBooksEntities = bookService.getBooksByOwnerPincode(normalizedPincode);
-        List<BookResponse> bookResponses = new ArrayList<>();
-        for (Books book : filteredBooksEntities) {
-            bookResponses.add(buildBookResponse(book, "Books filtered by owner's pincode retrieved successfully"));
-        }
+        List<BookListingView> filteredBooks = bookService.searchBooks(BookSearchCriteria.byOwnerPincode(normalizedPincode));
+        List<BookResponse> bookResponses = buildBookResponses(filteredBooks, "Books filtered by owner's pincode retrieved successfully");
         return new ResponseEntity<>(bookResponses, HttpStatus.OK);
     }
 
@@ -124,30 +111,71 @@ public class FilterBooksController {
         if (!isValidBookGenre(genreName)) {
             return new ResponseEntity<>("Invalid book genre provided. Please use a valid genre like FICTION, NON_FICTION, SCIENCE_FICTION, etc.", HttpStatus.BAD_REQUEST);
         }
-        List<Books> filteredBooksEntities = bookService.getBooksByGenre(genreName);
-        List<BookResponse> bookResponses = new ArrayList<>();
-        for (Books book : filteredBooksEntities) {
-            bookResponses.add(buildBookResponse(book, "Books filtered by genre retrieved successfully"));
-        }
+        List<BookListingView> filteredBooks = bookService.searchBooks(BookSearchCriteria.byGenre(BookGenre.valueOf(genreName.toUpperCase())));
+        List<BookResponse> bookResponses = buildBookResponses(filteredBooks, "Books filtered by genre retrieved successfully");
         return new ResponseEntity<>(bookResponses, HttpStatus.OK);
     }
 
 
     @GetMapping("/bookStatus/{statusName}")
     public ResponseEntity<Object> getBooksByBookStatus(@PathVariable String statusName) {
-        List<Books> filteredBooksEntities = bookService.getBooksByStatus(statusName);
-
-        if (filteredBooksEntities.isEmpty() && !isValidBookStatus(statusName)) {
+        if (!isValidBookStatus(statusName)) {
             return new ResponseEntity<>("Invalid book status provided. Please use AVAILABLE, BORROWED, LOST, ARCHIVED, or OWNED_PRIVATE.", HttpStatus.BAD_REQUEST);
         }
+        List<BookListingView> filteredBooks = bookService.searchBooks(BookSearchCriteria.byBookStatus(BookStatus.valueOf(statusName.toUpperCase())));
 
-        List<BookResponse> bookResponses = new ArrayList<>();
-        for (Books book : filteredBooksEntities) {
-            bookResponses.add(buildBookResponse(book, "Books filtered by book status retrieved successfully"));
-        }
+        List<BookResponse> bookResponses = buildBookResponses(filteredBooks, "Books filtered by book status retrieved successfully");
         return new ResponseEntity<>(bookResponses, HttpStatus.OK);
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<Object> searchBooks(@RequestParam(required = false) String state,
+                                              @RequestParam(required = false) String country,
+                                              @RequestParam(required = false) String area,
+                                              @RequestParam(required = false) String city,
+                                              @RequestParam(required = false) String pincode,
+                                              @RequestParam(required = false) String genre,
+                                              @RequestParam(required = false) String author,
+                                              @RequestParam(required = false) String bookStatus,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer size) {
+        if (genre != null && !genre.isBlank() && !isValidBookGenre(genre.trim())) {
+            return new ResponseEntity<>("Invalid book genre provided. Please use a valid genre like FICTION, NON_FICTION, SCIENCE_FICTION, etc.", HttpStatus.BAD_REQUEST);
+        }
+        if (bookStatus != null && !bookStatus.isBlank() && !isValidBookStatus(bookStatus.trim())) {
+            return new ResponseEntity<>("Invalid book status provided. Please use AVAILABLE, BORROWED, LOST, ARCHIVED, or OWNED_PRIVATE.", HttpStatus.BAD_REQUEST);
+        }
+        BookCursor after;
+        try {
+            after = BookCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>("Invalid cursor provided. Please pass the nextCursor value from a previous page.", HttpStatus.BAD_REQUEST);
+        }
+
+        var criteria = new BookSearchCriteria(
+            state,
+            country,
+            area,
+            city,
+            pincode,
+            genre != null && !genre.isBlank() ? BookGenre.valueOf(genre.trim().toUpperCase()) : null,
+            author,
+            bookStatus != null && !bookStatus.isBlank() ? BookStatus.valueOf(bookStatus.trim().toUpperCase()) : null
+        );
+        int pageSize = bookService.resolvePageSize(size);
+        List<BookListingView> page = bookService.searchBooksPage(criteria, after.lastBookId(), pageSize);
+        boolean hasMore = page.size() > pageSize;
+        if (hasMore) {
+            page = page.subList(0, pageSize);
+        }
+
+        List<BookResponse> bookResponses = buildBookResponses(page, "Books matching the search retrieved successfully");
+        String nextCursor = hasMore ? new BookCursor(page.get(page.size() - 1).bookId()).encode() : null;
+        return new ResponseEntity<>(
+            new BookPageResponse<>(bookResponses, nextCursor, pageSize, "Books matching the search retrieved successfully"),
+            HttpStatus.OK);
+    }
+
 
     //helpers
     private boolean isValidBookGenre(String genreName) {
@@ -168,35 +196,39 @@ public class FilterBooksController {
         }
     }
 
-    private BookResponse buildBookResponse(Books book, String message) {
-        List<String> previousOwners = new ArrayList<>();
-        if (book.getPreviousOwners() != null) {
-            previousOwners = book.getPreviousOwners()
-                .stream()
-                .map(owner -> owner.getUsername())
-                .collect(Collectors.toList());
+    // Latest notes for the whole list are read in one query rather than one per book.
+    private List<BookResponse> buildBookResponses(List<BookListingView> books, String message) {
+        List<Integer> bookIds = new ArrayList<>();
+        for (BookListingView book : books) {
+            bookIds.add(book.bookId());
         }
+        Map<Integer, LatestNoteView> latestNotes = notesService.getMostRecentNotesForBooks(bookIds);
 
-        var currentOwner = (book.getCurrentOwner() != null) ? book.getCurrentOwner() : null;
-
-        var notes = notesService.getMostRecentNoteForBook(book.getBookId());
+        List<BookResponse> bookResponses = new ArrayList<>();
+        for (BookListingView book : books) {
+            bookResponses.add(buildBookResponse(book, latestNotes.get(book.bookId()), message));
+        }
+        return bookResponses;
+    }
 
+    private BookResponse buildBookResponse(BookListingView book, LatestNoteView latestNote, String message) {
         return new BookResponse(
-            book.getBookId(),
-            book.getBookTitle(),
-            book.getAuthorName(),
-            book.getBookGenre().name(),
-            book.getPublicationYear(),
-            book.getBookStatus().name(),
-            book.getEnlisted(),
-            currentOwner != null ? currentOwner.getUsername() : null,
-            currentOwner != null ? currentOwner.getName() : null,
-            previousOwners,
-            currentOwner != null ? currentOwner.getArea() : null,
-            currentOwner != null ? currentOwner.getCity() : null,
-            currentOwner != null ? currentOwner.getState() : null,
-            notes.isPresent() ? notes.get().getNoteContent() : null,
-            notes.isPresent() ? notes.get().getCustomizedTitle() : null,
+            book.bookId(),
+            book.bookTitle(),
+            book.authorName(),
+            book.bookGenre().name(),
+            book.publicationYear(),
+            book.bookStatus().name(),
+            book.enlisted(),
+            book.ownerUsername(),
+            book.ownerName(),
+            book.previousOwners(),
+            book.previousOwnerCount(),
+            book.ownerArea(),
+            book.ownerCity(),
+            book.ownerState(),
+            latestNote != null ? latestNote.getNoteContent() : null,
+            latestNote != null ? latestNote.getCustomizedTitle() : null,
             message
         );
     }
@@ -4,6 +4,7 @@ import java.security.Principal;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -200,6 +201,8 @@ public class UserController {
         } else {
             return new ResponseEntity<>(new MessageResponse("Failed to cancel borrow request. Request not found, or you are not the requester, or request status is not PENDING."), HttpStatus.BAD_REQUEST);
         }
+    } catch (OptimisticLockingFailureException e) {
+        return new ResponseEntity<>(new MessageResponse("Borrow request is no longer pending"), HttpStatus.CONFLICT);
     } catch (Exception e) {
         return new ResponseEntity<>(new MessageResponse("An error occurred while cancelling the borrow request: " + e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
     }
@@ -0,0 +1,106 @@
+package com.example.shelfshare.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+
+// Progress of a long-running backfill job; a restarted job resumes after lastBookId.
+@Entity
+public class BackfillCheckpoint {
+
+    @Id
+    @Column(length = 64)
+    private String jobName;
+
+    @Column(nullable = false)
+    private Integer lastBookId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, columnDefinition = "VARCHAR(32)")
+    private BackfillStatus status;
+
+    @Column(nullable = false)
+    private Long processedBooks;
+
+    @Column(nullable = false)
+    private Long failedBooks;
+
+    @Column(nullable = false)
+    private Instant startedAt;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    public BackfillCheckpoint() {
+    }
+
+    public BackfillCheckpoint(String jobName) {
+        this.jobName = jobName;
+        this.lastBookId = 0;
+        this.status = BackfillStatus.STOPPED;
+        this.processedBooks = 0L;
+        this.failedBooks = 0L;
+        this.startedAt = Instant.now();
+        this.updatedAt = this.startedAt;
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public void setJobName(String jobName) {
+        this.jobName = jobName;
+    }
+
+    public Integer getLastBookId() {
+        return lastBookId;
+    }
+
+    public void setLastBookId(Integer lastBookId) {
+        this.lastBookId = lastBookId;
+    }
+
+    public BackfillStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(BackfillStatus status) {
+        this.status = status;
+    }
+
+    public Long getProcessedBooks() {
+        return processedBooks;
+    }
+
+    public void setProcessedBooks(Long processedBooks) {
+        this.processedBooks = processedBooks;
+    }
+
+    public Long getFailedBooks() {
+        return failedBooks;
+    }
+
+    public void setFailedBooks(Long failedBooks) {
+        this.failedBooks = failedBooks;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
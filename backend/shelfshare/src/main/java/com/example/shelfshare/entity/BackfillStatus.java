@@ -0,0 +1,9 @@
+package com.example.shelfshare.entity;
+
+public enum BackfillStatus {
+
+    RUNNING,
+    STOPPED,
+    COMPLETED,
+    FAILED
+}
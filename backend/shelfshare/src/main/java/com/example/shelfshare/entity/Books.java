@@ -13,12 +13,25 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
+import org.hibernate.annotations.DynamicUpdate;
 
 
+
+// Dynamic updates write only the changed columns, so an entity save cannot overwrite the
+// summary columns the background pipeline updates in place.
 @Entity
+@DynamicUpdate
+@Table(indexes = {
+    @Index(name = "idx_books_author_name_key", columnList = "author_name_key")
+})
 public class Books {
 
     @Id
@@ -31,6 +44,10 @@ public class Books {
     @Column(nullable = false)
     private String authorName;
 
+    // normalized authorName, kept in sync on write and used by the author filter
+    @Column(name = "author_name_key")
+    private String authorNameKey;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, columnDefinition = "VARCHAR(255)")
     private BookGenre bookGenre;
@@ -42,11 +59,6 @@ public class Books {
     @JoinColumn(name = "current_owner_user_id", nullable = false)
     private Users currentOwner;
 
-    @ElementCollection
-    @CollectionTable(name = "book_previous_owners", joinColumns = @JoinColumn(name = "book_id"))
-    @Column(name = "user_id")
-    private List<Users> previousOwners;
-
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, columnDefinition = "VARCHAR(255)")
     private BookStatus bookStatus;
@@ -60,14 +72,21 @@ public class Books {
     @Column(columnDefinition = "TEXT") 
     private String summarizedNoteContent;
 
+    // highest note id folded into summarizedNoteContent; later notes are summarized incrementally
+    private Integer summarizedThroughNoteId;
+
     @Column(length = 255) 
     private String masterCustomTitle;
+
+    // bumped by every entity save and by the status compare-and-set updates in BooksRepository
+    @Version
+    private Long version;
     
     public Books() {
     }
 
     public Books(Integer bookId, String bookTitle, String authorName, BookGenre bookGenre, Integer publicationYear,
-            Users currentOwner, List<Users> previousOwners, BookStatus bookStatus, Boolean enlisted,
+            Users currentOwner, BookStatus bookStatus, Boolean enlisted,
             List<Integer> notesId) {
         this.bookId = bookId;
         this.bookTitle = bookTitle;
@@ -75,12 +94,17 @@ public class Books {
         this.bookGenre = bookGenre;
         this.publicationYear = publicationYear;
         this.currentOwner = currentOwner;
-        this.previousOwners = previousOwners;
         this.bookStatus = bookStatus;
         this.enlisted = enlisted;
         this.notesId = notesId;
     }
 
+    @PrePersist
+    @PreUpdate
+    void refreshSearchKeys() {
+        this.authorNameKey = SearchKeys.normalize(authorName);
+    }
+
     public Integer getBookId() {
         return bookId;
     }
@@ -129,14 +153,6 @@ public class Books {
         this.currentOwner = currentOwner;
     }
 
-    public List<Users> getPreviousOwners() {
-        return previousOwners;
-    }
-
-    public void setPreviousOwners(List<Users> previousOwners) {
-        this.previousOwners = previousOwners;
-    }
-
     public BookStatus getBookStatus() {
         return bookStatus;
     }
@@ -169,6 +185,14 @@ public class Books {
         this.summarizedNoteContent = summarizedNoteContent;
     }
 
+    public Integer getSummarizedThroughNoteId() {
+        return summarizedThroughNoteId;
+    }
+
+    public void setSummarizedThroughNoteId(Integer summarizedThroughNoteId) {
+        this.summarizedThroughNoteId = summarizedThroughNoteId;
+    }
+
     public String getMasterCustomTitle() {
         return masterCustomTitle;
     }
@@ -177,4 +201,12 @@ public class Books {
         this.masterCustomTitle = masterCustomTitle;
     }
     
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -12,6 +12,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Version;
 
 @Entity
 public class BorrowRequests {
@@ -39,6 +40,9 @@ public class BorrowRequests {
     @Column(nullable = false)
     private BorrowRequestStatus status;
 
+    @Version
+    private Long version;
+
     //optional: cancellation date
     //@Column(nullable = false)
     //private Instant cancellationDate;
@@ -103,6 +107,14 @@ public class BorrowRequests {
     public void setStatus(BorrowRequestStatus status) {
         this.status = status;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
     //optional
     //public Instant getCancellationDate() {
     //    return cancellationDate;
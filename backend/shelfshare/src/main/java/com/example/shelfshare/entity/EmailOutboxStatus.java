@@ -0,0 +1,8 @@
+package com.example.shelfshare.entity;
+
+public enum EmailOutboxStatus {
+
+    PENDING,
+    SENT,
+    FAILED
+}
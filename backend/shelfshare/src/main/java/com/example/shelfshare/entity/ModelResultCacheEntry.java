@@ -0,0 +1,79 @@
+package com.example.shelfshare.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+// Persistent tier of ModelResultCache: one model output per SHA-256 of its exact input.
+@Entity
+public class ModelResultCacheEntry {
+
+    @Id
+    @Column(length = 64)
+    private String cacheKey;
+
+    @Column(nullable = false, length = 32)
+    private String kind;
+
+    @Column(nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String result;
+
+    @Column(length = 32)
+    private String modelVersion;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    public ModelResultCacheEntry() {
+    }
+
+    public ModelResultCacheEntry(String cacheKey, String kind, String result, String modelVersion, Instant createdAt) {
+        this.cacheKey = cacheKey;
+        this.kind = kind;
+        this.result = result;
+        this.modelVersion = modelVersion;
+        this.createdAt = createdAt;
+    }
+
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    public void setCacheKey(String cacheKey) {
+        this.cacheKey = cacheKey;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public void setKind(String kind) {
+        this.kind = kind;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public void setResult(String result) {
+        this.result = result;
+    }
+
+    public String getModelVersion() {
+        return modelVersion;
+    }
+
+    public void setModelVersion(String modelVersion) {
+        this.modelVersion = modelVersion;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.shelfshare.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Append-only ledger of who held a book before whom. Rows are only ever inserted: a BORROW_APPROVED
+// row per approved borrow request, and an ARCHIVED row, which has no toUserId, when the owner
+// archives the book. Ids are plain columns so recording a transfer never loads the book or either user.
+@Entity
+@Table(name = "ownership_transfers", indexes = {
+    @Index(name = "idx_ownership_transfers_book", columnList = "book_id, transfer_id")
+})
+public class OwnershipTransfer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long transferId;
+
+    @Column(nullable = false)
+    private Integer bookId;
+
+    @Column(nullable = false)
+    private Integer fromUserId;
+
+    private Integer toUserId;
+
+    private Integer borrowRequestId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, columnDefinition = "VARCHAR(32)")
+    private OwnershipTransferReason reason;
+
+    @Column(nullable = false)
+    private Instant transferredAt;
+
+    public OwnershipTransfer() {
+    }
+
+    public OwnershipTransfer(Integer bookId, Integer fromUserId, Integer toUserId, Integer borrowRequestId,
+                             OwnershipTransferReason reason, Instant transferredAt) {
+        this.bookId = bookId;
+        this.fromUserId = fromUserId;
+        this.toUserId = toUserId;
+        this.borrowRequestId = borrowRequestId;
+        this.reason = reason;
+        this.transferredAt = transferredAt;
+    }
+
+    public Long getTransferId() {
+        return transferId;
+    }
+
+    public Integer getBookId() {
+        return bookId;
+    }
+
+    public Integer getFromUserId() {
+        return fromUserId;
+    }
+
+    public Integer getToUserId() {
+        return toUserId;
+    }
+
+    public Integer getBorrowRequestId() {
+        return borrowRequestId;
+    }
+
+    public OwnershipTransferReason getReason() {
+        return reason;
+    }
+
+    public Instant getTransferredAt() {
+        return transferredAt;
+    }
+}
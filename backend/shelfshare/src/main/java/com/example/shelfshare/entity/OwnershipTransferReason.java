@@ -0,0 +1,9 @@
+package com.example.shelfshare.entity;
+
+// Why a ledger row was written. IMPORTED rows came over from book_previous_owners, which kept no reason.
+public enum OwnershipTransferReason {
+
+    BORROW_APPROVED,
+    ARCHIVED,
+    IMPORTED
+}
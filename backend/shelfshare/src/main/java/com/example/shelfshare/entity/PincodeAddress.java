@@ -0,0 +1,80 @@
+package com.example.shelfshare.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+// Persistent tier of PincodeResolver. found is false for pincodes the upstream API does not know;
+// response holds the UserAddressResponse as JSON either way.
+@Entity
+public class PincodeAddress {
+
+    @Id
+    @Column(length = 6)
+    private String pincode;
+
+    @Column(nullable = false)
+    private Boolean found;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String response;
+
+    @Column(nullable = false)
+    private Instant fetchedAt;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    public PincodeAddress() {
+    }
+
+    public PincodeAddress(String pincode, Boolean found, String response, Instant fetchedAt, Instant expiresAt) {
+        this.pincode = pincode;
+        this.found = found;
+        this.response = response;
+        this.fetchedAt = fetchedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getPincode() {
+        return pincode;
+    }
+
+    public void setPincode(String pincode) {
+        this.pincode = pincode;
+    }
+
+    public Boolean getFound() {
+        return found;
+    }
+
+    public void setFound(Boolean found) {
+        this.found = found;
+    }
+
+    public String getResponse() {
+        return response;
+    }
+
+    public void setResponse(String response) {
+        this.response = response;
+    }
+
+    public Instant getFetchedAt() {
+        return fetchedAt;
+    }
+
+    public void setFetchedAt(Instant fetchedAt) {
+        this.fetchedAt = fetchedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.shelfshare.entity;
+
+import java.util.Locale;
+
+// Folding used for the indexed *_key shadow columns and for every lookup against them.
+public final class SearchKeys {
+
+    private SearchKeys() {
+    }
+
+    public static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,9 +1,9 @@
 package com.example.shelfshare.entity;
 
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
@@ -12,10 +12,21 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.MapKeyColumn;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_users_pincode", columnList = "pincode"),
+    @Index(name = "idx_users_area_key", columnList = "area_key"),
+    @Index(name = "idx_users_city_key", columnList = "city_key"),
+    @Index(name = "idx_users_state_key", columnList = "state_key"),
+    @Index(name = "idx_users_country_key", columnList = "country_key")
+})
 public class Users {
 
     @Id
@@ -38,6 +49,16 @@ public class Users {
     private String state;
     private String country;
 
+    // normalized copies of the location columns, kept in sync on write and used by the book filters
+    @Column(name = "area_key")
+    private String areaKey;
+    @Column(name = "city_key")
+    private String cityKey;
+    @Column(name = "state_key")
+    private String stateKey;
+    @Column(name = "country_key")
+    private String countryKey;
+
     private boolean isAdmin;
 
     @ElementCollection
@@ -46,10 +67,12 @@ public class Users {
     @Column(name = "answer_value", nullable = false)
     private Map<String, String> securityQuestionMap = new HashMap<>();
 
+    // A Set, unlike a List bag, is written one row at a time instead of being deleted and
+    // re-inserted whole on every save.
     @ElementCollection
     @CollectionTable(name = "user_owned_books", joinColumns = @JoinColumn(name = "user_id"))
-    @Column(name = "book_id")
-    private List<Integer> bookOwned = new ArrayList<>();
+    @Column(name = "book_id", nullable = false)
+    private Set<Integer> bookOwned = new HashSet<>();
 
     @ElementCollection
     @CollectionTable(name = "user_enlisted_books", joinColumns = @JoinColumn(name = "user_id"))
@@ -57,16 +80,6 @@ public class Users {
     @Column(name = "ratings")
     private Map<Integer, Integer> booksEnlistedForSale = new HashMap<>();
 
-    @ElementCollection
-    @CollectionTable(name = "user_received_requests", joinColumns = @JoinColumn(name = "user_id"))
-    @Column(name = "borrow_request_id")
-    private List<Integer> borrowRequestsReceived = new ArrayList<>();
-
-    @ElementCollection
-    @CollectionTable(name = "user_sent_requests", joinColumns = @JoinColumn(name = "user_id"))
-    @Column(name = "borrow_request_id")
-    private List<Integer> borrowRequestsSent = new ArrayList<>();
-
     public Users() {
     }
 
@@ -84,6 +97,15 @@ public class Users {
         this.isAdmin = isAdmin;
     }
 
+    @PrePersist
+    @PreUpdate
+    void refreshSearchKeys() {
+        this.areaKey = SearchKeys.normalize(area);
+        this.cityKey = SearchKeys.normalize(city);
+        this.stateKey = SearchKeys.normalize(state);
+        this.countryKey = SearchKeys.normalize(country);
+    }
+
     public Integer getUserId() {
         return userId;
     }
@@ -180,11 +202,11 @@ public class Users {
         this.securityQuestionMap = securityQuestionMap;
     }
 
-    public List<Integer> getBookOwned() {
+    public Set<Integer> getBookOwned() {
         return bookOwned;
     }
 
-    public void setBookOwned(List<Integer> bookOwned) {
+    public void setBookOwned(Set<Integer> bookOwned) {
         this.bookOwned = bookOwned;
     }
 
@@ -196,19 +218,4 @@ public class Users {
         this.booksEnlistedForSale = booksEnlistedForSale;
     }
 
-    public List<Integer> getBorrowRequestsReceived() {
-        return borrowRequestsReceived;
-    }
-
-    public void setBorrowRequestsReceived(List<Integer> borrowRequestsReceived) {
-        this.borrowRequestsReceived = borrowRequestsReceived;
-    }
-
-    public List<Integer> getBorrowRequestsSent() {
-        return borrowRequestsSent;
-    }
-
-    public void setBorrowRequestsSent(List<Integer> borrowRequestsSent) {
-        this.borrowRequestsSent = borrowRequestsSent;
-    }
 }
@@ -0,0 +1,14 @@
+package com.example.shelfshare.model;
+
+public record BackfillStatusResponse(
+    String jobName,
+    String status,
+    Integer lastBookId,
+    Long processedBooks,
+    Long failedBooks,
+    String startedAt,
+    String updatedAt,
+    String message
+) {
+
+}
@@ -0,0 +1,41 @@
+package com.example.shelfshare.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public record BookCursor(Integer lastBookId) {
+
+    private static final String PREFIX = "b1:";
+
+    public static final BookCursor START = new BookCursor(0);
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastBookId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Cursors are opaque to clients; anything we did not hand out is rejected.
+    public static BookCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+        if (!decoded.startsWith(PREFIX)) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        try {
+            int lastBookId = Integer.parseInt(decoded.substring(PREFIX.length()));
+            if (lastBookId < 0) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new BookCursor(lastBookId);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.shelfshare.model;
+
+import com.example.shelfshare.entity.BookGenre;
+import com.example.shelfshare.entity.BookStatus;
+
+// The filterable attributes of one book, as read by the in-memory filter index.
+public record BookIndexRow(
+        Integer bookId,
+        BookGenre bookGenre,
+        BookStatus bookStatus,
+        String authorName,
+        String ownerState,
+        String ownerCountry,
+        String ownerArea,
+        String ownerCity,
+        String ownerPincode
+) {
+}
@@ -0,0 +1,38 @@
+package com.example.shelfshare.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.shelfshare.entity.BookGenre;
+import com.example.shelfshare.entity.BookStatus;
+
+// Read-only row for catalog listings, filled by constructor expressions in BooksRepository.
+// previousOwners holds only the most recent few; previousOwnerCount counts them all.
+public record BookListingView(
+        Integer bookId,
+        String bookTitle,
+        String authorName,
+        BookGenre bookGenre,
+        Integer publicationYear,
+        BookStatus bookStatus,
+        Boolean enlisted,
+        String ownerUsername,
+        String ownerName,
+        String ownerArea,
+        String ownerCity,
+        String ownerState,
+        String summarizedNoteContent,
+        String masterCustomTitle,
+        Long previousOwnerCount,
+        List<String> previousOwners
+) {
+
+    public BookListingView(Integer bookId, String bookTitle, String authorName, BookGenre bookGenre,
+            Integer publicationYear, BookStatus bookStatus, Boolean enlisted, String ownerUsername,
+            String ownerName, String ownerArea, String ownerCity, String ownerState,
+            String summarizedNoteContent, String masterCustomTitle, Long previousOwnerCount) {
+        this(bookId, bookTitle, authorName, bookGenre, publicationYear, bookStatus, enlisted, ownerUsername,
+                ownerName, ownerArea, ownerCity, ownerState, summarizedNoteContent, masterCustomTitle,
+                previousOwnerCount, new ArrayList<>());
+    }
+}
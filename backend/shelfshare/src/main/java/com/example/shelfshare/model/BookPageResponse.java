@@ -0,0 +1,10 @@
+package com.example.shelfshare.model;
+
+import java.util.List;
+
+public record BookPageResponse<T>(List<T> books, String nextCursor, Integer pageSize, String message) {
+
+    public BookPageResponse(String message) {
+        this(List.of(), null, null, message);
+    }
+}
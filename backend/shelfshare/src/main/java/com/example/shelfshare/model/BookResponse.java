@@ -13,6 +13,7 @@ public record BookResponse(
         String currentOwnerUserName,
         String currentOwnerName,
         List<String> previousOwners,
+        Long previousOwnerCount,
         String userArea,
         String userCity,
         String userState,
@@ -22,6 +23,6 @@ public record BookResponse(
 ) {
 
         public BookResponse(String message) {
-                this(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, message);
+                this(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, message);
         }
 }
\ No newline at end of file
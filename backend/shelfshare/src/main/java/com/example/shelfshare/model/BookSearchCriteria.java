@@ -0,0 +1,70 @@
+package com.example.shelfshare.model;
+
+import com.example.shelfshare.entity.BookGenre;
+import com.example.shelfshare.entity.BookStatus;
+
+// Any combination of filters; null means "not filtered on". Blank strings are treated as null.
+public record BookSearchCriteria(
+        String state,
+        String country,
+        String area,
+        String city,
+        String pincode,
+        BookGenre genre,
+        String authorName,
+        BookStatus bookStatus
+) {
+
+    public BookSearchCriteria {
+        state = clean(state);
+        country = clean(country);
+        area = clean(area);
+        city = clean(city);
+        pincode = clean(pincode);
+        authorName = clean(authorName);
+    }
+
+    public static BookSearchCriteria byOwnerState(String state) {
+        return new BookSearchCriteria(state, null, null, null, null, null, null, null);
+    }
+
+    public static BookSearchCriteria byOwnerCountry(String country) {
+        return new BookSearchCriteria(null, country, null, null, null, null, null, null);
+    }
+
+    public static BookSearchCriteria byOwnerArea(String area) {
+        return new BookSearchCriteria(null, null, area, null, null, null, null, null);
+    }
+
+    public static BookSearchCriteria byOwnerCity(String city) {
+        return new BookSearchCriteria(null, null, null, city, null, null, null, null);
+    }
+
+    public static BookSearchCriteria byOwnerPincode(String pincode) {
+        return new BookSearchCriteria(null, null, null, null, pincode, null, null, null);
+    }
+
+    public static BookSearchCriteria byGenre(BookGenre genre) {
+        return new BookSearchCriteria(null, null, null, null, null, genre, null, null);
+    }
+
+    public static BookSearchCriteria byAuthorName(String authorName) {
+        return new BookSearchCriteria(null, null, null, null, null, null, authorName, null);
+    }
+
+    public static BookSearchCriteria byBookStatus(BookStatus bookStatus) {
+        return new BookSearchCriteria(null, null, null, null, null, null, null, bookStatus);
+    }
+
+    public boolean filtersOnOwnerLocation() {
+        return state != null || country != null || area != null || city != null || pincode != null;
+    }
+
+    private static String clean(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.shelfshare.model;
+
+// Projection over the newest note of a book, see NotesRepository.findLatestNotesByBookIdIn.
+public interface LatestNoteView {
+    Integer getNoteId();
+
+    Integer getBookId();
+
+    String getNoteContent();
+
+    String getCustomizedTitle();
+}
@@ -2,6 +2,11 @@ package com.example.shelfshare.model;
 
 import java.util.List;
 
-public record NoteSummarizationRequest(List<String> notesList) {
+// previousSummary is set in incremental mode: notesList then holds only the notes written since it.
+public record NoteSummarizationRequest(List<String> notesList, String previousSummary) {
+
+    public NoteSummarizationRequest(List<String> notesList) {
+        this(notesList, null);
+    }
 
 }
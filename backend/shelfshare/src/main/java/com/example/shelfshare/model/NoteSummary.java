@@ -0,0 +1,6 @@
+package com.example.shelfshare.model;
+
+// A book's notes summary and the highest note id it covers (null when it should be rebuilt in full).
+public record NoteSummary(String summary, Integer summarizedThroughNoteId) {
+
+}
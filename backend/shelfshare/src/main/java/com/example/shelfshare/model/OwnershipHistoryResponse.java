@@ -0,0 +1,11 @@
+package com.example.shelfshare.model;
+
+import java.util.List;
+
+// A page of a book's ownership ledger, oldest first; pass nextAfterTransferId back as afterTransferId.
+public record OwnershipHistoryResponse(List<OwnershipTransferView> transfers, Long nextAfterTransferId, Integer pageSize, String message) {
+
+    public OwnershipHistoryResponse(String message) {
+        this(List.of(), null, null, message);
+    }
+}
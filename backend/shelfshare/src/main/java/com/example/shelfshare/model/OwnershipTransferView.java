@@ -0,0 +1,16 @@
+package com.example.shelfshare.model;
+
+import java.time.Instant;
+
+import com.example.shelfshare.entity.OwnershipTransferReason;
+
+// One ledger row with usernames resolved; toUsername is null for ARCHIVED and IMPORTED rows.
+public record OwnershipTransferView(
+        Long transferId,
+        String fromUsername,
+        String toUsername,
+        Integer borrowRequestId,
+        OwnershipTransferReason reason,
+        Instant transferredAt
+) {
+}
@@ -0,0 +1,7 @@
+package com.example.shelfshare.model;
+
+import java.util.List;
+
+public record SummaryBatchRequest(List<SummaryBatchItem> items) {
+
+}
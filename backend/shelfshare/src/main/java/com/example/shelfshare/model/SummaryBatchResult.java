@@ -0,0 +1,6 @@
+package com.example.shelfshare.model;
+
+// error is set when the summarizer could not handle this one book; the rest of the batch still counts.
+public record SummaryBatchResult(Integer bookId, String summary, String masterTitle, String error) {
+
+}
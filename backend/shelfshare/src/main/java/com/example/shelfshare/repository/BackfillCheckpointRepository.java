@@ -0,0 +1,9 @@
+package com.example.shelfshare.repository;
+
+import org.springframework.data.repository.CrudRepository;
+
+import com.example.shelfshare.entity.BackfillCheckpoint;
+
+public interface BackfillCheckpointRepository extends CrudRepository<BackfillCheckpoint, String> {
+
+}
@@ -1,36 +1,115 @@
 package com.example.shelfshare.repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.example.shelfshare.entity.BookGenre;
 import com.example.shelfshare.entity.BookStatus;
 import com.example.shelfshare.entity.Books;
+import com.example.shelfshare.model.BookIndexRow;
+import com.example.shelfshare.model.BookListingView;
+import com.example.shelfshare.model.NoteSummary;
+
+public interface BooksRepository extends CrudRepository<Books, Integer>, PagingAndSortingRepository<Books, Integer>, BooksSearchRepository {
+
+    String LISTING_SELECT = "SELECT new com.example.shelfshare.model.BookListingView("
+            + "b.bookId, b.bookTitle, b.authorName, b.bookGenre, b.publicationYear, b.bookStatus, b.enlisted, "
+            + "o.username, o.name, o.area, o.city, o.state, b.summarizedNoteContent, b.masterCustomTitle, "
+            + "(SELECT COUNT(t) FROM OwnershipTransfer t WHERE t.bookId = b.bookId)) "
+            + "FROM Books b JOIN b.currentOwner o ";
 
-public interface BooksRepository extends CrudRepository<Books, Integer> {
     List<Books> findByCurrentOwner_Username(String username);
     
-    List<Books> findByBookStatus(BookStatus bookStatus);
+    @Query(LISTING_SELECT + "WHERE b.bookStatus = :bookStatus ORDER BY b.bookId ASC")
+    List<BookListingView> findListingsByBookStatus(@Param("bookStatus") BookStatus bookStatus);
 
-    List<Books> findByCurrentOwner_UsernameAndEnlistedAndBookStatus(String username, boolean enlisted, BookStatus bookStatus);
+    // keyset page: callers pass the last bookId they saw, the limit comes from the Pageable
+    @Query(LISTING_SELECT + "WHERE b.bookStatus = :bookStatus AND b.bookId > :afterBookId ORDER BY b.bookId ASC")
+    List<BookListingView> findListingPageByBookStatus(@Param("bookStatus") BookStatus bookStatus, @Param("afterBookId") Integer afterBookId, Pageable pageable);
 
-    List<Books> findByCurrentOwner_StateIgnoreCase(String state);
-    
-    List<Books> findByCurrentOwner_CountryIgnoreCase(String country);
-    
-    List<Books> findByCurrentOwner_AreaIgnoreCase(String area);
+    @Query(LISTING_SELECT + "WHERE b.bookId IN :bookIds")
+    List<BookListingView> findListingsByBookIdIn(@Param("bookIds") Collection<Integer> bookIds);
 
-    List<Books> findByCurrentOwner_CityIgnoreCase(String city);
+    @Query(LISTING_SELECT + "WHERE o.username = :username AND b.enlisted = :enlisted AND b.bookStatus = :bookStatus ORDER BY b.bookId ASC")
+    List<BookListingView> findListingsByOwnerAndEnlistedAndBookStatus(@Param("username") String username, @Param("enlisted") boolean enlisted, @Param("bookStatus") BookStatus bookStatus);
 
-    List<Books> findByCurrentOwner_Pincode(String pincode);
+    @Query(LISTING_SELECT + "WHERE o.username = :username AND b.bookStatus = :bookStatus ORDER BY b.bookId ASC")
+    List<BookListingView> findListingsByOwnerAndBookStatus(@Param("username") String username, @Param("bookStatus") BookStatus bookStatus);
 
-    List<Books> findByBookGenre(BookGenre bookGenre);
+    String INDEX_ROW_SELECT = "SELECT new com.example.shelfshare.model.BookIndexRow("
+            + "b.bookId, b.bookGenre, b.bookStatus, b.authorName, o.state, o.country, o.area, o.city, o.pincode) "
+            + "FROM Books b JOIN b.currentOwner o ";
+
+    @Query(INDEX_ROW_SELECT + "WHERE b.bookId > :afterBookId ORDER BY b.bookId ASC")
+    List<BookIndexRow> findIndexRowsAfter(@Param("afterBookId") Integer afterBookId, Pageable pageable);
+
+    @Query(INDEX_ROW_SELECT + "WHERE b.bookId = :bookId")
+    Optional<BookIndexRow> findIndexRowByBookId(@Param("bookId") Integer bookId);
+
+    @Query(INDEX_ROW_SELECT + "WHERE o.userId = :userId")
+    List<BookIndexRow> findIndexRowsByOwnerId(@Param("userId") Integer userId);
 
-    List<Books> findByAuthorNameIgnoreCase(String authorName);
-    
     @Query("SELECT b.bookId FROM Books b")
     List<Integer> findAllBookIdList();
 
-    List<Books> findByCurrentOwner_UsernameAndBookStatus(String username, BookStatus bookStatus);
+    @Query("SELECT b.bookId FROM Books b WHERE b.bookId > :afterBookId ORDER BY b.bookId ASC")
+    List<Integer> findBookIdsAfter(@Param("afterBookId") Integer afterBookId, Pageable pageable);
+
+    @Query("SELECT new com.example.shelfshare.model.NoteSummary(b.summarizedNoteContent, b.summarizedThroughNoteId) "
+            + "FROM Books b WHERE b.bookId = :bookId")
+    Optional<NoteSummary> findNoteSummaryByBookId(@Param("bookId") Integer bookId);
+
+    // Write-back for the summarization pipeline; touches only the two derived columns.
+    @Modifying
+    @Transactional
+    @Query("UPDATE Books b SET b.summarizedNoteContent = :summary, b.summarizedThroughNoteId = :throughNoteId, "
+            + "b.masterCustomTitle = :masterTitle WHERE b.bookId = :bookId")
+    int updateSummary(@Param("bookId") Integer bookId, @Param("summary") String summary,
+                      @Param("throughNoteId") Integer throughNoteId, @Param("masterTitle") String masterTitle);
+
+    // Backfill write-back: skipped when the live pipeline has already summarized newer notes.
+    @Modifying
+    @Transactional
+    @Query("UPDATE Books b SET b.summarizedNoteContent = :summary, b.summarizedThroughNoteId = :throughNoteId, "
+            + "b.masterCustomTitle = :masterTitle WHERE b.bookId = :bookId "
+            + "AND (b.summarizedThroughNoteId IS NULL OR b.summarizedThroughNoteId <= :throughNoteId)")
+    int updateSummaryUnlessNewer(@Param("bookId") Integer bookId, @Param("summary") String summary,
+                                 @Param("throughNoteId") Integer throughNoteId, @Param("masterTitle") String masterTitle);
+
+    // Compare-and-set status transition: changes nothing and returns 0 unless the book is still in
+    // the expected status, so of two racing callers exactly one wins. The persistence context is
+    // flushed before and cleared after, so load entities after calling it.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Books b SET b.bookStatus = :to, b.enlisted = :enlisted, b.version = b.version + 1 "
+            + "WHERE b.bookId = :bookId AND b.bookStatus = :from")
+    int transitionStatus(@Param("bookId") Integer bookId, @Param("from") BookStatus from,
+                         @Param("to") BookStatus to, @Param("enlisted") Boolean enlisted);
+
+    // Approval: hands a REQUESTED book from its current owner to the requester in one step.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Books b SET b.bookStatus = com.example.shelfshare.entity.BookStatus.BORROWED, b.enlisted = false, "
+            + "b.currentOwner.userId = :requesterId, b.version = b.version + 1 "
+            + "WHERE b.bookId = :bookId AND b.currentOwner.userId = :ownerId "
+            + "AND b.bookStatus = com.example.shelfshare.entity.BookStatus.REQUESTED")
+    int transferToRequester(@Param("bookId") Integer bookId, @Param("ownerId") Integer ownerId,
+                            @Param("requesterId") Integer requesterId);
+
+    // Puts REQUESTED books back on the shelf once none of their requests is pending any more.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Books b SET b.bookStatus = com.example.shelfshare.entity.BookStatus.AVAILABLE, b.enlisted = true, "
+            + "b.version = b.version + 1 WHERE b.bookId IN :bookIds "
+            + "AND b.bookStatus = com.example.shelfshare.entity.BookStatus.REQUESTED "
+            + "AND NOT EXISTS (SELECT br FROM BorrowRequests br WHERE br.book.bookId = b.bookId "
+            + "AND br.status = com.example.shelfshare.entity.BorrowRequestStatus.PENDING)")
+    int releaseRequestedWithoutPending(@Param("bookIds") Collection<Integer> bookIds);
 }
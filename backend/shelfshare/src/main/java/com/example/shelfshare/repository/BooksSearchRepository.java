@@ -0,0 +1,11 @@
+package com.example.shelfshare.repository;
+
+import java.util.List;
+
+import com.example.shelfshare.model.BookSearchCriteria;
+
+public interface BooksSearchRepository {
+
+    // Ids of matching books in bookId order, starting after afterBookId; a null limit returns every match.
+    List<Integer> searchBookIds(BookSearchCriteria criteria, Integer afterBookId, Integer limit);
+}
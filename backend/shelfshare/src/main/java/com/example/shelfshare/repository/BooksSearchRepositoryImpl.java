@@ -0,0 +1,75 @@
+package com.example.shelfshare.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.shelfshare.entity.Books;
+import com.example.shelfshare.entity.SearchKeys;
+import com.example.shelfshare.entity.Users;
+import com.example.shelfshare.model.BookSearchCriteria;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+public class BooksSearchRepositoryImpl implements BooksSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Integer> searchBookIds(BookSearchCriteria criteria, Integer afterBookId, Integer limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Integer> query = cb.createQuery(Integer.class);
+        Root<Books> book = query.from(Books.class);
+        Join<Books, Users> owner = criteria.filtersOnOwnerLocation() ? book.join("currentOwner") : null;
+
+        // Every filter is an equality on an indexed column; text filters compare against the
+        // normalized *_key columns so their indexes stay usable. Which index drives the query is
+        // MySQL's choice from its own index statistics: the order below (roughly narrowest
+        // dimension first) only keeps the generated SQL stable and has no effect on the plan.
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.pincode() != null) {
+            predicates.add(cb.equal(owner.get("pincode"), criteria.pincode()));
+        }
+        if (criteria.area() != null) {
+            predicates.add(cb.equal(owner.get("areaKey"), SearchKeys.normalize(criteria.area())));
+        }
+        if (criteria.authorName() != null) {
+            predicates.add(cb.equal(book.get("authorNameKey"), SearchKeys.normalize(criteria.authorName())));
+        }
+        if (criteria.city() != null) {
+            predicates.add(cb.equal(owner.get("cityKey"), SearchKeys.normalize(criteria.city())));
+        }
+        if (criteria.state() != null) {
+            predicates.add(cb.equal(owner.get("stateKey"), SearchKeys.normalize(criteria.state())));
+        }
+        if (criteria.genre() != null) {
+            predicates.add(cb.equal(book.get("bookGenre"), criteria.genre()));
+        }
+        if (criteria.country() != null) {
+            predicates.add(cb.equal(owner.get("countryKey"), SearchKeys.normalize(criteria.country())));
+        }
+        if (criteria.bookStatus() != null) {
+            predicates.add(cb.equal(book.get("bookStatus"), criteria.bookStatus()));
+        }
+        if (afterBookId != null && afterBookId > 0) {
+            predicates.add(cb.greaterThan(book.<Integer>get("bookId"), afterBookId));
+        }
+
+        query.select(book.<Integer>get("bookId"))
+            .where(predicates.toArray(new Predicate[0]))
+            .orderBy(cb.asc(book.get("bookId")));
+
+        TypedQuery<Integer> typedQuery = entityManager.createQuery(query);
+        if (limit != null) {
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultList();
+    }
+}
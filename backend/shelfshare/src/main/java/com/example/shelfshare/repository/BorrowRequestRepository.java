@@ -1,10 +1,16 @@
 package com.example.shelfshare.repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.shelfshare.entity.BorrowRequestStatus;
 import com.example.shelfshare.entity.BorrowRequests;
@@ -21,5 +27,48 @@ public interface BorrowRequestRepository extends CrudRepository<BorrowRequests,
 
     public List<BorrowRequests> findByBookBookIdAndStatus(Integer bookId, BorrowRequestStatus status);
 
-    public List<BorrowRequests> findByStatusAndRequestDateBefore(BorrowRequestStatus status, Instant dateTime);
+    // Compare-and-set on a single request; 0 when it has already left the expected status.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE BorrowRequests br SET br.status = :to, br.version = br.version + 1 "
+            + "WHERE br.borrowRequestId = :borrowRequestId AND br.status = :from")
+    int transitionStatus(@Param("borrowRequestId") Integer borrowRequestId, @Param("from") BorrowRequestStatus from,
+                         @Param("to") BorrowRequestStatus to);
+
+    @Query("SELECT DISTINCT br.requester.userId FROM BorrowRequests br WHERE br.book.bookId = :bookId AND br.status = :status")
+    List<Integer> findRequesterIdsByBookIdAndStatus(@Param("bookId") Integer bookId, @Param("status") BorrowRequestStatus status);
+
+    // Set-based counterpart of transitionStatus for every request on a book in the given status.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE BorrowRequests br SET br.status = :to, br.version = br.version + 1 "
+            + "WHERE br.book.bookId = :bookId AND br.status = :from")
+    int transitionAllForBook(@Param("bookId") Integer bookId, @Param("from") BorrowRequestStatus from,
+                             @Param("to") BorrowRequestStatus to);
+
+    // rows of [borrowRequestId, requestDate]; served from idx_borrow_requests_status_date
+    @Query("SELECT br.borrowRequestId, br.requestDate FROM BorrowRequests br WHERE br.status = :status")
+    List<Object[]> findIdAndRequestDateByStatus(@Param("status") BorrowRequestStatus status);
+
+    // keyset page by id for the expiry sweep; served from idx_borrow_requests_status_id
+    @Query("SELECT br.borrowRequestId FROM BorrowRequests br WHERE br.status = :status AND br.borrowRequestId > :afterId "
+            + "AND br.requestDate < :before ORDER BY br.borrowRequestId ASC")
+    List<Integer> findIdPageByStatusAndRequestDateBefore(@Param("status") BorrowRequestStatus status, @Param("before") Instant before,
+                                                         @Param("afterId") Integer afterId, Pageable pageable);
+
+    @Query("SELECT MIN(br.requestDate) FROM BorrowRequests br WHERE br.status = :status")
+    Optional<Instant> findOldestRequestDateByStatus(@Param("status") BorrowRequestStatus status);
+
+    @Query("SELECT DISTINCT br.book.bookId FROM BorrowRequests br "
+            + "WHERE br.borrowRequestId IN :ids AND br.status = :status AND br.requestDate < :before")
+    List<Integer> findBookIdsByIdInAndStatusAndRequestDateBefore(@Param("ids") Collection<Integer> ids,
+                                                                @Param("status") BorrowRequestStatus status, @Param("before") Instant before);
+
+    // Compare-and-set expiry: only requests still in `from` and older than `before` move.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE BorrowRequests br SET br.status = :to, br.version = br.version + 1 "
+            + "WHERE br.borrowRequestId IN :ids AND br.status = :from AND br.requestDate < :before")
+    int transitionAllRequestedBefore(@Param("ids") Collection<Integer> ids, @Param("from") BorrowRequestStatus from,
+                                     @Param("to") BorrowRequestStatus to, @Param("before") Instant before);
 }
@@ -0,0 +1,36 @@
+package com.example.shelfshare.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.shelfshare.entity.EmailOutbox;
+import com.example.shelfshare.entity.EmailOutboxStatus;
+
+public interface EmailOutboxRepository extends CrudRepository<EmailOutbox, Long> {
+
+    @Query("SELECT e.emailId FROM EmailOutbox e WHERE e.status = :status AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt ASC, e.emailId ASC")
+    List<Long> findDueIds(@Param("status") EmailOutboxStatus status, @Param("now") Instant now, Pageable pageable);
+
+    // Compare-and-set claim: only rows still due are taken, so of concurrent dispatchers exactly one
+    // claims each row. Moving nextAttemptAt to the lease end hides them from the others while they
+    // are sent, and makes them due again should the claiming instance die.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.claimToken = :claimToken, e.nextAttemptAt = :leaseUntil "
+            + "WHERE e.emailId IN :emailIds AND e.status = :status AND e.nextAttemptAt <= :now")
+    int claim(@Param("emailIds") Collection<Long> emailIds, @Param("status") EmailOutboxStatus status, @Param("now") Instant now,
+              @Param("claimToken") String claimToken, @Param("leaseUntil") Instant leaseUntil);
+
+    List<EmailOutbox> findByClaimTokenOrderByEmailIdAsc(String claimToken);
+
+    long countByStatus(EmailOutboxStatus status);
+
+}
@@ -0,0 +1,27 @@
+package com.example.shelfshare.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.shelfshare.entity.ModelResultCacheEntry;
+
+public interface ModelResultCacheRepository extends CrudRepository<ModelResultCacheEntry, String> {
+
+    // entries another model version produced, or created before the cutoff; the limit comes from the Pageable
+    @Query("SELECT e.cacheKey FROM ModelResultCacheEntry e "
+            + "WHERE e.modelVersion IS NULL OR e.modelVersion <> :modelVersion OR e.createdAt < :createdBefore")
+    List<String> findStaleKeys(@Param("modelVersion") String modelVersion, @Param("createdBefore") Instant createdBefore, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ModelResultCacheEntry e WHERE e.cacheKey IN :cacheKeys")
+    int deleteByCacheKeyIn(@Param("cacheKeys") Collection<String> cacheKeys);
+}
@@ -1,16 +1,33 @@
 package com.example.shelfshare.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 import com.example.shelfshare.entity.Notes;
+import com.example.shelfshare.model.LatestNoteView;
 
 public interface NotesRepository extends CrudRepository<Notes, Integer> {
 
     Optional<Notes> findTopByBookBookIdOrderByTimestampDesc(Integer bookId);
 
-    List<Notes> findByBookBookId(Integer bookId);
+    List<Notes> findByBookBookIdOrderByNoteIdAsc(Integer bookId);
+
+    List<Notes> findByBookBookIdAndNoteIdGreaterThanOrderByNoteIdAsc(Integer bookId, Integer afterNoteId);
+
+    List<Notes> findByBookBookIdInOrderByBookBookIdAscNoteIdAsc(Collection<Integer> bookIds);
+
+    // one row per book: the note with the latest timestamp, ties broken by the higher note id
+    @Query(value = "SELECT ranked.note_id AS noteId, ranked.book_id AS bookId, "
+            + "ranked.note_content AS noteContent, ranked.customized_title AS customizedTitle "
+            + "FROM (SELECT n.note_id, n.book_id, n.note_content, n.customized_title, "
+            + "ROW_NUMBER() OVER (PARTITION BY n.book_id ORDER BY n.timestamp DESC, n.note_id DESC) AS rn "
+            + "FROM notes n WHERE n.book_id IN (:bookIds)) ranked "
+            + "WHERE ranked.rn = 1", nativeQuery = true)
+    List<LatestNoteView> findLatestNotesByBookIdIn(@Param("bookIds") Collection<Integer> bookIds);
     
 }
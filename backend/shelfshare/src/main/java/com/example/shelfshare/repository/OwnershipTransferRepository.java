@@ -0,0 +1,31 @@
+package com.example.shelfshare.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import com.example.shelfshare.entity.OwnershipTransfer;
+import com.example.shelfshare.model.OwnershipTransferView;
+
+public interface OwnershipTransferRepository extends CrudRepository<OwnershipTransfer, Long> {
+
+    // keyset page over one book's ledger, oldest first; the limit comes from the Pageable
+    @Query("SELECT new com.example.shelfshare.model.OwnershipTransferView("
+            + "t.transferId, f.username, o.username, t.borrowRequestId, t.reason, t.transferredAt) "
+            + "FROM OwnershipTransfer t JOIN Users f ON f.userId = t.fromUserId LEFT JOIN Users o ON o.userId = t.toUserId "
+            + "WHERE t.bookId = :bookId AND t.transferId > :afterTransferId ORDER BY t.transferId ASC")
+    List<OwnershipTransferView> findPageByBookId(@Param("bookId") Integer bookId, @Param("afterTransferId") Long afterTransferId, Pageable pageable);
+
+    // rows of [bookId, username]: the last `recent` previous owners of each book, oldest first
+    @Query(value = "SELECT ranked.book_id, ranked.username "
+            + "FROM (SELECT t.book_id, t.transfer_id, u.username, "
+            + "ROW_NUMBER() OVER (PARTITION BY t.book_id ORDER BY t.transfer_id DESC) AS rn "
+            + "FROM ownership_transfers t JOIN users u ON u.user_id = t.from_user_id "
+            + "WHERE t.book_id IN (:bookIds)) ranked "
+            + "WHERE ranked.rn <= :recent ORDER BY ranked.book_id, ranked.transfer_id", nativeQuery = true)
+    List<Object[]> findRecentPreviousOwnersByBookIdIn(@Param("bookIds") Collection<Integer> bookIds, @Param("recent") int recent);
+}
@@ -0,0 +1,9 @@
+package com.example.shelfshare.repository;
+
+import org.springframework.data.repository.CrudRepository;
+
+import com.example.shelfshare.entity.PincodeAddress;
+
+public interface PincodeAddressRepository extends CrudRepository<PincodeAddress, String> {
+
+}
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Component;
 
 import com.example.shelfshare.service.BookService;
 
+// Hourly safety net behind BorrowRequestExpiryService, which expires requests at their deadline.
 @Component
 public class BorrowRequestCleanupScheduler {
 
@@ -20,8 +21,8 @@ public class BorrowRequestCleanupScheduler {
     @Scheduled(fixedRate=3600000)
     public void rejectExpiredBorrowRequests() {
         logger.info("Running scheduled task to reject expired borrow requests");
-        bookService.rejectExpiredBorrowRequests();
-        logger.info("Finished scheduled task to reject expired borrow requests");
+        int expired = bookService.rejectExpiredBorrowRequests();
+        logger.info("Finished scheduled task to reject expired borrow requests, {} expired", expired);
     }
 
 }
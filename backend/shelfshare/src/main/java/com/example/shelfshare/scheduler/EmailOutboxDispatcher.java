@@ -0,0 +1,140 @@
+package com.example.shelfshare.scheduler;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.shelfshare.entity.EmailOutbox;
+import com.example.shelfshare.entity.EmailOutboxStatus;
+import com.example.shelfshare.repository.EmailOutboxRepository;
+import com.example.shelfshare.service.EmailService;
+import com.example.shelfshare.service.MailDeliveryService;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+
+// Drains the email outbox off the request path. Each due batch is first claimed with a
+// compare-and-set update, so when several instances poll the same outbox every row is sent by
+// one of them only. The claimed batch goes out over the pooled SMTP connections and the rows are
+// saved afterwards, so no transaction is held open across an SMTP call; failures back off
+// exponentially.
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailService emailService;
+    private final MailDeliveryService mailDeliveryService;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final long claimLeaseMs;
+    private final AtomicLong pendingEmails = new AtomicLong();
+
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository,
+                                 EmailService emailService,
+                                 MailDeliveryService mailDeliveryService,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${shelfshare.mail.outbox.batch-size:50}") int batchSize,
+                                 @Value("${shelfshare.mail.outbox.max-attempts:8}") int maxAttempts,
+                                 @Value("${shelfshare.mail.outbox.initial-backoff-ms:30000}") long initialBackoffMs,
+                                 @Value("${shelfshare.mail.outbox.max-backoff-ms:3600000}") long maxBackoffMs,
+                                 @Value("${shelfshare.mail.outbox.claim-lease-ms:300000}") long claimLeaseMs) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailService = emailService;
+        this.mailDeliveryService = mailDeliveryService;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.claimLeaseMs = claimLeaseMs;
+        Gauge.builder("shelfshare.mail.outbox.pending", pendingEmails, AtomicLong::get)
+            .description("PENDING outbox rows as of the last dispatcher poll")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shelfshare.mail.outbox.poll-interval-ms:2000}")
+    public void dispatchDueEmails() {
+        List<Long> dueIds;
+        do {
+            Instant now = Instant.now();
+            dueIds = emailOutboxRepository.findDueIds(EmailOutboxStatus.PENDING, now, PageRequest.of(0, batchSize));
+            if (dueIds.isEmpty()) {
+                break;
+            }
+            // rows another instance claimed first are no longer due, so the next page skips them
+            String claimToken = UUID.randomUUID().toString();
+            if (emailOutboxRepository.claim(dueIds, EmailOutboxStatus.PENDING, now, claimToken, now.plusMillis(claimLeaseMs)) > 0) {
+                dispatch(emailOutboxRepository.findByClaimTokenOrderByEmailIdAsc(claimToken));
+            }
+        } while (dueIds.size() == batchSize);
+        pendingEmails.set(emailOutboxRepository.countByStatus(EmailOutboxStatus.PENDING));
+    }
+
+    private void dispatch(List<EmailOutbox> emails) {
+        if (emails.isEmpty()) {
+            return;
+        }
+        List<EmailOutbox> sendable = new ArrayList<>(emails.size());
+        List<MimeMessage> messages = new ArrayList<>(emails.size());
+        for (EmailOutbox email : emails) {
+            email.setClaimToken(null);
+            email.setAttempts(email.getAttempts() + 1);
+            try {
+                messages.add(emailService.createMessage(email));
+                sendable.add(email);
+            } catch (Exception e) {
+                recordFailure(email, e);
+            }
+        }
+
+        List<Exception> results = mailDeliveryService.sendAll(messages);
+        for (int i = 0; i < sendable.size(); i++) {
+            EmailOutbox email = sendable.get(i);
+            Exception failure = results.get(i);
+            if (failure == null) {
+                email.setStatus(EmailOutboxStatus.SENT);
+                email.setSentAt(Instant.now());
+                email.setLastError(null);
+            } else {
+                recordFailure(email, failure);
+            }
+        }
+        emailOutboxRepository.saveAll(emails);
+        logger.info("Dispatched {} emails, {} sent", emails.size(), emails.stream().filter(e -> e.getStatus() == EmailOutboxStatus.SENT).count());
+    }
+
+    private void recordFailure(EmailOutbox email, Exception e) {
+        email.setLastError(truncate(e.toString()));
+        if (email.getAttempts() >= maxAttempts) {
+            email.setStatus(EmailOutboxStatus.FAILED);
+            logger.error("Giving up on email {} to {} after {} attempts", email.getEmailId(), email.getRecipient(), email.getAttempts(), e);
+        } else {
+            email.setNextAttemptAt(Instant.now().plusMillis(backoffMillis(email.getAttempts())));
+            logger.warn("Failed to send email {} to {} (attempt {}), retrying at {}: {}",
+                email.getEmailId(), email.getRecipient(), email.getAttempts(), email.getNextAttemptAt(), e.getMessage());
+        }
+    }
+
+    private long backoffMillis(int attempts) {
+        long delay = initialBackoffMs << Math.min(attempts - 1, 20);
+        return Math.min(delay, maxBackoffMs);
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.shelfshare.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.shelfshare.service.ModelResultCache;
+
+// Keeps model_result_cache_entry to the current model version and the cache ttl.
+@Component
+public class ModelResultCachePurgeScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModelResultCachePurgeScheduler.class);
+    private final ModelResultCache modelResultCache;
+
+    public ModelResultCachePurgeScheduler(ModelResultCache modelResultCache) {
+        this.modelResultCache = modelResultCache;
+    }
+
+    @Scheduled(fixedRate=3600000)
+    public void purgeStaleEntries() {
+        int purged = modelResultCache.purgeStale();
+        if (purged > 0) {
+            logger.info("Purged {} stale model result cache entries", purged);
+        }
+    }
+
+}
@@ -0,0 +1,305 @@
+package com.example.shelfshare.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.shelfshare.entity.SearchKeys;
+import com.example.shelfshare.model.BookIndexRow;
+import com.example.shelfshare.model.BookSearchCriteria;
+import com.example.shelfshare.repository.BooksRepository;
+
+// In-memory filter index: one compressed bitmap of book ids per value of each filter dimension.
+// Until the startup build finishes, search() returns empty and callers fall back to SQL.
+// The index is private to this process and only follows the refresh calls made in it, so it assumes
+// a single application instance: a book changed through another instance, or in the database
+// directly, stays stale here until the next rebuild(). Run more than one instance with
+// shelfshare.book-index.enabled=false. Memory follows the highest bookId rather than the number of
+// books, since each dimension also keeps an int per id for updates (about 32 bytes per id).
+@Service
+public class BookFilterIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookFilterIndexService.class);
+    private static final int BUILD_CHUNK_SIZE = 5000;
+
+    enum Dimension {
+        GENRE, STATUS, AUTHOR, STATE, COUNTRY, AREA, CITY, PINCODE
+    }
+
+    private final BooksRepository booksRepository;
+    private final boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Dimension, DimensionIndex> dimensions = emptyDimensions();
+    private RoaringBitmap allBooks = new RoaringBitmap();
+
+    private volatile boolean ready = false;
+    private volatile boolean building = false;
+    private final Set<Integer> refreshedWhileBuilding = ConcurrentHashMap.newKeySet();
+
+    public BookFilterIndexService(BooksRepository booksRepository,
+                                  @Value("${shelfshare.book-index.enabled:true}") boolean enabled) {
+        this.booksRepository = booksRepository;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        Thread builder = new Thread(this::rebuild, "book-filter-index-build");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    public void rebuild() {
+        building = true;
+        long started = System.currentTimeMillis();
+        try {
+            Map<Dimension, DimensionIndex> freshDimensions = emptyDimensions();
+            RoaringBitmap freshAllBooks = new RoaringBitmap();
+            int afterBookId = 0;
+            List<BookIndexRow> chunk;
+            do {
+                chunk = booksRepository.findIndexRowsAfter(afterBookId, PageRequest.of(0, BUILD_CHUNK_SIZE));
+                for (BookIndexRow row : chunk) {
+                    index(freshDimensions, freshAllBooks, row);
+                    afterBookId = row.bookId();
+                }
+            } while (chunk.size() == BUILD_CHUNK_SIZE);
+
+            lock.writeLock().lock();
+            try {
+                dimensions = freshDimensions;
+                allBooks = freshAllBooks;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Book filter index built: {} books in {} ms", freshAllBooks.getCardinality(), System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            logger.error("Book filter index build failed, searches stay on SQL", e);
+        } finally {
+            building = false;
+        }
+        // rows the scan may have read before a concurrent write committed
+        for (Integer bookId : refreshedWhileBuilding) {
+            refreshedWhileBuilding.remove(bookId);
+            refreshBook(bookId);
+        }
+    }
+
+    // Matching ids after afterBookId in ascending order, or empty when the index cannot answer yet.
+    public Optional<List<Integer>> search(BookSearchCriteria criteria, Integer afterBookId, Integer limit) {
+        if (!enabled || !ready) {
+            return Optional.empty();
+        }
+        Map<Dimension, String> keys = keysOf(criteria);
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matches;
+            if (keys.isEmpty()) {
+                matches = allBooks;
+            } else {
+                List<RoaringBitmap> bitmaps = new ArrayList<>();
+                for (var entry : keys.entrySet()) {
+                    RoaringBitmap bitmap = dimensions.get(entry.getKey()).lookup(entry.getValue());
+                    if (bitmap == null || bitmap.isEmpty()) {
+                        return Optional.of(List.of());
+                    }
+                    bitmaps.add(bitmap);
+                }
+                // start from the rarest value so every AND shrinks an already small bitmap
+                bitmaps.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+                matches = bitmaps.get(0).clone();
+                for (int i = 1; i < bitmaps.size() && !matches.isEmpty(); i++) {
+                    matches.and(bitmaps.get(i));
+                }
+            }
+
+            List<Integer> bookIds = new ArrayList<>(limit != null ? limit : Math.min(matches.getCardinality(), 1024));
+            PeekableIntIterator iterator = matches.getIntIterator();
+            if (afterBookId != null && afterBookId > 0) {
+                iterator.advanceIfNeeded(afterBookId + 1);
+            }
+            while (iterator.hasNext() && (limit == null || bookIds.size() < limit)) {
+                bookIds.add(iterator.next());
+            }
+            return Optional.of(bookIds);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Call from code that changed a book; the index is updated once the surrounding transaction commits.
+    public void refreshBookAfterCommit(Integer bookId) {
+        runAfterCommit(() -> refreshBook(bookId));
+    }
+
+    // An owner's location change moves every book they currently hold.
+    public void refreshBooksOfOwnerAfterCommit(Integer userId) {
+        runAfterCommit(() -> {
+            for (BookIndexRow row : booksRepository.findIndexRowsByOwnerId(userId)) {
+                apply(row.bookId(), row);
+            }
+        });
+    }
+
+    public void refreshBook(Integer bookId) {
+        if (!enabled) {
+            return;
+        }
+        apply(bookId, booksRepository.findIndexRowByBookId(bookId).orElse(null));
+    }
+
+    private void apply(Integer bookId, BookIndexRow row) {
+        if (building) {
+            refreshedWhileBuilding.add(bookId);
+        }
+        if (!ready) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (row == null) {
+                for (DimensionIndex dimension : dimensions.values()) {
+                    dimension.remove(bookId);
+                }
+                allBooks.remove(bookId);
+            } else {
+                index(dimensions, allBooks, row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static void index(Map<Dimension, DimensionIndex> dimensions, RoaringBitmap allBooks, BookIndexRow row) {
+        int bookId = row.bookId();
+        allBooks.add(bookId);
+        dimensions.get(Dimension.GENRE).put(bookId, row.bookGenre() != null ? row.bookGenre().name() : null);
+        dimensions.get(Dimension.STATUS).put(bookId, row.bookStatus() != null ? row.bookStatus().name() : null);
+        dimensions.get(Dimension.AUTHOR).put(bookId, normalize(row.authorName()));
+        dimensions.get(Dimension.STATE).put(bookId, normalize(row.ownerState()));
+        dimensions.get(Dimension.COUNTRY).put(bookId, normalize(row.ownerCountry()));
+        dimensions.get(Dimension.AREA).put(bookId, normalize(row.ownerArea()));
+        dimensions.get(Dimension.CITY).put(bookId, normalize(row.ownerCity()));
+        dimensions.get(Dimension.PINCODE).put(bookId, normalize(row.ownerPincode()));
+    }
+
+    private static Map<Dimension, String> keysOf(BookSearchCriteria criteria) {
+        Map<Dimension, String> keys = new EnumMap<>(Dimension.class);
+        if (criteria.genre() != null) {
+            keys.put(Dimension.GENRE, criteria.genre().name());
+        }
+        if (criteria.bookStatus() != null) {
+            keys.put(Dimension.STATUS, criteria.bookStatus().name());
+        }
+        if (criteria.authorName() != null) {
+            keys.put(Dimension.AUTHOR, normalize(criteria.authorName()));
+        }
+        if (criteria.state() != null) {
+            keys.put(Dimension.STATE, normalize(criteria.state()));
+        }
+        if (criteria.country() != null) {
+            keys.put(Dimension.COUNTRY, normalize(criteria.country()));
+        }
+        if (criteria.area() != null) {
+            keys.put(Dimension.AREA, normalize(criteria.area()));
+        }
+        if (criteria.city() != null) {
+            keys.put(Dimension.CITY, normalize(criteria.city()));
+        }
+        if (criteria.pincode() != null) {
+            keys.put(Dimension.PINCODE, normalize(criteria.pincode()));
+        }
+        return keys;
+    }
+
+    // same folding as the *_key columns the SQL path filters on
+    private static String normalize(String value) {
+        return SearchKeys.normalize(value);
+    }
+
+    private static Map<Dimension, DimensionIndex> emptyDimensions() {
+        Map<Dimension, DimensionIndex> dimensions = new EnumMap<>(Dimension.class);
+        for (Dimension dimension : Dimension.values()) {
+            dimensions.put(dimension, new DimensionIndex());
+        }
+        return dimensions;
+    }
+
+    // Dictionary-encoded dimension: value -> ordinal -> bitmap, plus the reverse ordinal per book for updates.
+    private static final class DimensionIndex {
+        private final Map<String, Integer> ordinals = new HashMap<>();
+        private final List<RoaringBitmap> bitmaps = new ArrayList<>();
+        private int[] ordinalByBook = new int[1024]; // ordinal + 1, 0 means not indexed
+
+        RoaringBitmap lookup(String key) {
+            Integer ordinal = ordinals.get(key);
+            return ordinal != null ? bitmaps.get(ordinal) : null;
+        }
+
+        void put(int bookId, String key) {
+            remove(bookId);
+            if (key == null) {
+                return;
+            }
+            int ordinal = ordinals.computeIfAbsent(key, k -> {
+                bitmaps.add(new RoaringBitmap());
+                return bitmaps.size() - 1;
+            });
+            bitmaps.get(ordinal).add(bookId);
+            if (bookId >= ordinalByBook.length) {
+                int[] grown = new int[Math.max(bookId + 1, ordinalByBook.length * 2)];
+                System.arraycopy(ordinalByBook, 0, grown, 0, ordinalByBook.length);
+                ordinalByBook = grown;
+            }
+            ordinalByBook[bookId] = ordinal + 1;
+        }
+
+        void remove(int bookId) {
+            if (bookId < ordinalByBook.length && ordinalByBook[bookId] != 0) {
+                bitmaps.get(ordinalByBook[bookId] - 1).remove(bookId);
+                ordinalByBook[bookId] = 0;
+            }
+        }
+    }
+}
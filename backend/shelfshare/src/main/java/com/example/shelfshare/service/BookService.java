@@ -1,13 +1,18 @@
 package com.example.shelfshare.service;
 
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,16 +22,28 @@ import com.example.shelfshare.entity.Books;
 import com.example.shelfshare.entity.BorrowRequestStatus;
 import com.example.shelfshare.entity.BorrowRequests;
 import com.example.shelfshare.entity.Notes;
+import com.example.shelfshare.entity.OwnershipTransfer;
+import com.example.shelfshare.entity.OwnershipTransferReason;
 import com.example.shelfshare.entity.Users;
+import com.example.shelfshare.model.BookListingView;
 import com.example.shelfshare.model.BookRequest;
+import com.example.shelfshare.model.BookSearchCriteria;
+import com.example.shelfshare.model.OwnershipTransferView;
 import com.example.shelfshare.repository.BooksRepository;
 import com.example.shelfshare.repository.BorrowRequestRepository;
 import com.example.shelfshare.repository.NotesRepository;
+import com.example.shelfshare.repository.OwnershipTransferRepository;
 import com.example.shelfshare.repository.UserRepository;
 
 @Service
 public class BookService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final int LISTING_BATCH_SIZE = 500;
+    // listings carry only this many previous owners; the rest are paged from the ledger on demand
+    public static final int RECENT_PREVIOUS_OWNERS = 5;
+
     @Autowired
     private BooksRepository booksRepository;
 
@@ -39,14 +56,20 @@ public class BookService {
     @Autowired
     private BorrowRequestRepository borrowRequestRepository;
 
+    @Autowired
+    private OwnershipTransferRepository ownershipTransferRepository;
+
     @Autowired
     private EmailService emailService;
 
     @Autowired
-    private NoteSummarizationService noteSummarizationService;
+    private BookSummaryPipeline bookSummaryPipeline;
+
+    @Autowired
+    private BookFilterIndexService bookFilterIndexService;
 
     @Autowired
-    private CustomTitleService customTitleService;
+    private BorrowRequestExpiryService borrowRequestExpiryService;
 
     @Transactional
     public Boolean enlistBook(Integer bookId, String username, String noteContent, String customizedTitle, Integer ratings) {
@@ -88,14 +111,12 @@ public class BookService {
             updatedNotesArray.add(savedNote.getNoteId());
             book.setNotesId(updatedNotesArray);
 
-            String summarizedContent = noteSummarizationService.getSummarizedNoteContent(book.getBookId());
-            String masterTitle = customTitleService.getMasterCustomTitle(book.getBookId());
-
-            book.setSummarizedNoteContent(summarizedContent);
-            book.setMasterCustomTitle(masterTitle);
+            // summary and master title are recomputed in the background once this commits
+            bookSummaryPipeline.requestRefreshAfterCommit(book.getBookId());
         }
 
         booksRepository.save(book);
+        bookFilterIndexService.refreshBookAfterCommit(bookId);
 
         var userBooksOwned = user.getBookOwned();
         if (userBooksOwned.contains(bookId)) {
@@ -124,7 +145,6 @@ public class BookService {
         newBook.setBookGenre(BookGenre.valueOf(request.bookGenre()));
         newBook.setPublicationYear(request.publicationYear());
         newBook.setCurrentOwner(user);
-        newBook.setPreviousOwners(List.of());
         newBook.setBookStatus(BookStatus.AVAILABLE);
         newBook.setEnlisted(true);
         newBook.setNotesId(new ArrayList<Integer>());
@@ -146,6 +166,8 @@ public class BookService {
         var updatedNotesArray = savedBook.getNotesId();
         updatedNotesArray.add(savedNote.getNoteId());
         savedBook.setNotesId(updatedNotesArray);
+        // the first note is its own summary
+        savedBook.setSummarizedThroughNoteId(savedNote.getNoteId());
 
         var booksEnlistedForSale = user.getBooksEnlistedForSale();
         // booksEnlistedForSale.add(savedBook.getBookId());
@@ -153,92 +175,126 @@ public class BookService {
         user.setBooksEnlistedForSale(booksEnlistedForSale);
         booksRepository.save(savedBook);
         userRepository.save(user);
+        bookFilterIndexService.refreshBookAfterCommit(savedBook.getBookId());
 
         return true;
     }
 
-    public List<Books> getAllAvailableBooks() {
-        return booksRepository.findByBookStatus(BookStatus.AVAILABLE);
+    public List<BookListingView> getAvailableBookListings() {
+        return withPreviousOwners(booksRepository.findListingsByBookStatus(BookStatus.AVAILABLE));
     }
 
-    public List<Books> getMyBooks(String username) {
-        var user = userRepository.findByUsername(username)
-            .orElseThrow(() -> new NoSuchElementException("User not found"));
-            var myBooks = booksRepository.findByCurrentOwner_UsernameAndEnlistedAndBookStatus(username, true, BookStatus.AVAILABLE);        return myBooks;
+    public int resolvePageSize(Integer requestedSize) {
+        if (requestedSize == null || requestedSize <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(requestedSize, MAX_PAGE_SIZE);
     }
 
-    public Optional<Books> getBookById(Integer bookId) {
-        return booksRepository.findById(bookId);
+    // Fetches one row more than asked for so callers can tell whether another page exists.
+    public List<BookListingView> getAvailableBookListingsPage(Integer afterBookId, int pageSize) {
+        return withPreviousOwners(booksRepository.findListingPageByBookStatus(
+            BookStatus.AVAILABLE, afterBookId != null ? afterBookId : 0, PageRequest.of(0, pageSize + 1)));
     }
 
-    public List<Integer> getAllBookIdList() {
-        return booksRepository.findAllBookIdList();
+    public List<BookListingView> getMyBookListings(String username) {
+        userRepository.findByUsername(username)
+            .orElseThrow(() -> new NoSuchElementException("User not found"));
+        return withPreviousOwners(booksRepository.findListingsByOwnerAndEnlistedAndBookStatus(username, true, BookStatus.AVAILABLE));
     }
 
-    public List<Books> getBooksByOwnerState(String stateName) {
-        return booksRepository.findByCurrentOwner_StateIgnoreCase(stateName);
+    public Optional<BookListingView> getBookListingById(Integer bookId) {
+        var listings = getBookListings(List.of(bookId));
+        return listings.isEmpty() ? Optional.empty() : Optional.of(listings.get(0));
     }
 
-    public List<Books> getBooksByStatus(String statusName) {
-        try {
-            BookStatus status = BookStatus.valueOf(statusName.toUpperCase());
-            return booksRepository.findByBookStatus(status);
-        } catch (IllegalArgumentException e) {
-            return new ArrayList<>(); // Return empty list for invalid status
+    // Listings come back in the order of the ids passed in; unknown ids are skipped.
+    public List<BookListingView> getBookListings(List<Integer> bookIds) {
+        if (bookIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Integer, BookListingView> listingsById = new HashMap<>();
+        for (int from = 0; from < bookIds.size(); from += LISTING_BATCH_SIZE) {
+            var chunk = bookIds.subList(from, Math.min(from + LISTING_BATCH_SIZE, bookIds.size()));
+            for (BookListingView listing : booksRepository.findListingsByBookIdIn(chunk)) {
+                listingsById.put(listing.bookId(), listing);
+            }
+        }
+        List<BookListingView> ordered = new ArrayList<>();
+        for (Integer bookId : bookIds) {
+            var listing = listingsById.get(bookId);
+            if (listing != null) {
+                ordered.add(listing);
+            }
         }
+        return withPreviousOwners(ordered);
     }
 
-    public List<Books> getBooksByOwnerCountry(String countryName) {
-        return booksRepository.findByCurrentOwner_CountryIgnoreCase(countryName);
+    private List<BookListingView> withPreviousOwners(List<BookListingView> listings) {
+        Map<Integer, BookListingView> listingsById = new HashMap<>();
+        for (BookListingView listing : listings) {
+            listingsById.put(listing.bookId(), listing);
+        }
+        List<Integer> bookIds = new ArrayList<>(listingsById.keySet());
+        for (int from = 0; from < bookIds.size(); from += LISTING_BATCH_SIZE) {
+            var chunk = bookIds.subList(from, Math.min(from + LISTING_BATCH_SIZE, bookIds.size()));
+            for (Object[] row : ownershipTransferRepository.findRecentPreviousOwnersByBookIdIn(chunk, RECENT_PREVIOUS_OWNERS)) {
+                listingsById.get((Integer) row[0]).previousOwners().add((String) row[1]);
+            }
+        }
+        return listings;
     }
 
-    public List<Books> getBooksByOwnerArea(String areaName) {
-        return booksRepository.findByCurrentOwner_AreaIgnoreCase(areaName);
+    // Empty when the book does not exist. Fetches one row more than asked for so callers can tell
+    // whether another page exists.
+    public Optional<List<OwnershipTransferView>> getOwnershipHistoryPage(Integer bookId, Long afterTransferId, int pageSize) {
+        if (!booksRepository.existsById(bookId)) {
+            return Optional.empty();
+        }
+        return Optional.of(ownershipTransferRepository.findPageByBookId(
+            bookId, afterTransferId != null ? afterTransferId : 0L, PageRequest.of(0, pageSize + 1)));
+    }
+
+    public Optional<Books> getBookById(Integer bookId) {
+        return booksRepository.findById(bookId);
     }
 
-    public List<Books> getBooksByOwnerCity(String cityName) {
-        return booksRepository.findByCurrentOwner_CityIgnoreCase(cityName);
+    public List<Integer> getAllBookIdList() {
+        return booksRepository.findAllBookIdList();
     }
 
-    public List<Books> getBooksByOwnerPincode(String pincode) {
-        return booksRepository.findByCurrentOwner_Pincode(pincode);
+    public List<BookListingView> searchBooks(BookSearchCriteria criteria) {
+        return getBookListings(searchBookIds(criteria, null, null));
     }
 
-    public List<Books> getBooksByGenre(String genreName) {
-        try {
-            // Convert genreName string to BookGenre enum, case-insensitively
-            BookGenre genre = BookGenre.valueOf(genreName.toUpperCase());
-            return booksRepository.findByBookGenre(genre);
-        } catch (IllegalArgumentException e) {
-            return new ArrayList<>(); // Or throw a specific exception for invalid genre
-        }
+    // Same contract as getAvailableBookListingsPage: up to pageSize + 1 listings.
+    public List<BookListingView> searchBooksPage(BookSearchCriteria criteria, Integer afterBookId, int pageSize) {
+        return getBookListings(searchBookIds(criteria, afterBookId, pageSize + 1));
     }
 
-    public List<Books> getBooksByAuthorName(String authorName) {
-        return booksRepository.findByAuthorNameIgnoreCase(authorName);
+    // The bitmap index answers when it is built; SQL covers startup and a disabled index.
+    private List<Integer> searchBookIds(BookSearchCriteria criteria, Integer afterBookId, Integer limit) {
+        return bookFilterIndexService.search(criteria, afterBookId, limit)
+            .orElseGet(() -> booksRepository.searchBookIds(criteria, afterBookId, limit));
     }
 
 
+    // Throws OptimisticLockingFailureException when another requester claimed the book first.
     @Transactional
     public Boolean borrowBook(Integer bookId, String username) {
-        var userOptional = userRepository.findByUsername(username);
-        var bookOptional = booksRepository.findById(bookId);
-
-        if (userOptional.isEmpty() || bookOptional.isEmpty()) {
+        if (!userRepository.findByUsername(username).isPresent() || !booksRepository.existsById(bookId)) {
             return false;
         }
 
-        var book = bookOptional.get();
-        var requester = userOptional.get();
+        // claim the book before anything else: of concurrent requesters exactly one gets it
+        if (booksRepository.transitionStatus(bookId, BookStatus.AVAILABLE, BookStatus.REQUESTED, false) == 0) {
+            throw new OptimisticLockingFailureException("Book " + bookId + " is no longer available");
+        }
 
-        var owner = book.getCurrentOwner();
-        owner = userRepository.findById(owner.getUserId()).get();
-        
+        var book = booksRepository.findById(bookId).get();
+        var requester = userRepository.findByUsername(username).get();
+        var owner = userRepository.findById(book.getCurrentOwner().getUserId()).get();
 
-        if (book.getBookStatus() != BookStatus.AVAILABLE) {
-            return false;
-        }
-        
         BorrowRequests borrowRequest = new BorrowRequests();
         borrowRequest.setBook(book);
         borrowRequest.setRequester(requester);
@@ -246,210 +302,110 @@ public class BookService {
         borrowRequest.setOwner(owner);
         borrowRequest.setStatus(BorrowRequestStatus.PENDING);
 
-        BorrowRequests savedBorrowRequest = borrowRequestRepository.save(borrowRequest);
+        // the requester's sent and the owner's received lists are read from borrow_requests itself
+        borrowRequestRepository.save(borrowRequest);
+        borrowRequestExpiryService.scheduleAfterCommit(borrowRequest.getBorrowRequestId(), borrowRequest.getRequestDate());
 
-        var requesterSentBorrowRequests = requester.getBorrowRequestsSent();
-        requesterSentBorrowRequests.add(savedBorrowRequest.getBorrowRequestId());
-        requester.setBorrowRequestsSent(requesterSentBorrowRequests);
-
-        userRepository.save(requester);
-
-        var ownerReceivedBorrowRequests = owner.getBorrowRequestsReceived();
-        ownerReceivedBorrowRequests.add(savedBorrowRequest.getBorrowRequestId());
-        owner.setBorrowRequestsReceived(ownerReceivedBorrowRequests);
-
-        userRepository.save(owner);
-
-        book.setEnlisted(false);
-        book.setBookStatus(BookStatus.REQUESTED);
-        
-        booksRepository.save(book);
+        bookFilterIndexService.refreshBookAfterCommit(book.getBookId());
 
         emailService.sendBorrowRequestReceivedEmail(owner.getUserId(), requester.getUserId(), book.getBookId());
 
         return true;
     }
 
+    // The request and the book move together: PENDING -> ACCEPTED and REQUESTED -> BORROWED.
+    // Throws OptimisticLockingFailureException, rolling both back, when either was changed first.
+    @Transactional
     public Boolean approveBorrowRequest(Integer bookId, Integer requesterId, Integer ownerId) {
-        var bookOptional = booksRepository.findById(bookId);
-        var requesterOptional = userRepository.findById(requesterId);
-        var ownerOptional = userRepository.findById(ownerId);
-
-        if (bookOptional.isEmpty() || requesterOptional.isEmpty() || ownerOptional.isEmpty()) {
+        if (!booksRepository.existsById(bookId) || !userRepository.existsById(requesterId) || !userRepository.existsById(ownerId)) {
             return false;
         }
 
-        var book = bookOptional.get();
-        var requester = requesterOptional.get();
-        var owner = ownerOptional.get();
-
-        if (book.getBookStatus() != BookStatus.REQUESTED) {
-            return false;
+        BorrowRequests pendingRequest = borrowRequestRepository.findFirstByBookBookIdAndRequesterUserIdAndOwnerUserIdAndStatusOrderByRequestDateAsc(bookId, requesterId, ownerId, BorrowRequestStatus.PENDING);
+        if (pendingRequest == null) {
+            throw new OptimisticLockingFailureException("No pending borrow request for book " + bookId + " from user " + requesterId);
         }
-        var prevOwners = book.getPreviousOwners();
-        prevOwners.add(book.getCurrentOwner());
-        book.setPreviousOwners(prevOwners);
-
-        book.setCurrentOwner(requester);
-        book.setBookStatus(BookStatus.BORROWED);
-        book.setEnlisted(false);
-
-        booksRepository.save(book);
-
-        emailService.sendBorrowRequestAcceptedEmail(owner.getUserId(), requester.getUserId(), book.getBookId());
-
-        // Update the borrow request status
-        BorrowRequests borrowRequest = borrowRequestRepository.findFirstByBookBookIdAndRequesterUserIdAndOwnerUserIdAndStatusOrderByRequestDateAsc(book.getBookId(), requester.getUserId(), owner.getUserId(), BorrowRequestStatus.PENDING);
-        if (borrowRequest != null) {
-            borrowRequest.setStatus(BorrowRequestStatus.ACCEPTED);
-            borrowRequestRepository.save(borrowRequest);
-
-            //remove this borrow request from the owner's received requests
-            var ownerReceivedRequests = owner.getBorrowRequestsReceived();
-            ownerReceivedRequests.removeIf(br -> br.equals(borrowRequest.getBorrowRequestId()));
-            owner.setBorrowRequestsReceived(ownerReceivedRequests);
-            userRepository.save(owner);
-
-            //remove this borrow request from the requester's sent requests
-            var requesterSentRequests = requester.getBorrowRequestsSent();
-            requesterSentRequests.removeIf(br -> br.equals(borrowRequest.getBorrowRequestId()));
-            requester.setBorrowRequestsSent(requesterSentRequests);
-            userRepository.save(requester);
+        Integer borrowRequestId = pendingRequest.getBorrowRequestId();
+        if (borrowRequestRepository.transitionStatus(borrowRequestId, BorrowRequestStatus.PENDING, BorrowRequestStatus.ACCEPTED) == 0
+                || booksRepository.transferToRequester(bookId, ownerId, requesterId) == 0) {
+            throw new OptimisticLockingFailureException("Borrow request " + borrowRequestId + " or book " + bookId + " changed before approval");
         }
 
-        //other borrow requests for the same book should be rejected
-        List<BorrowRequests> otherRequests = borrowRequestRepository.findByBookBookIdAndStatus(book.getBookId(), BorrowRequestStatus.PENDING);
-        for (BorrowRequests otherRequest : otherRequests) {
-            if (!otherRequest.getRequester().getUserId().equals(requesterId)) {
-                otherRequest.setStatus(BorrowRequestStatus.CANCELLED);
-                borrowRequestRepository.save(otherRequest);
-            }
+        // close out the competing requests in a fixed number of statements, however many there are
+        Set<Integer> cancelledRequesterIds = new LinkedHashSet<>(borrowRequestRepository.findRequesterIdsByBookIdAndStatus(bookId, BorrowRequestStatus.PENDING));
+        cancelledRequesterIds.remove(requesterId);
+        borrowRequestRepository.transitionAllForBook(bookId, BorrowRequestStatus.PENDING, BorrowRequestStatus.CANCELLED);
 
-            //remove this borrow request from the requester's sent requests
-            var otherRequester = otherRequest.getRequester();
-            var otherRequesterSentRequests = otherRequester.getBorrowRequestsSent();
-            otherRequesterSentRequests.removeIf(br -> br.equals(otherRequest.getBorrowRequestId()));
-            otherRequester.setBorrowRequestsSent(otherRequesterSentRequests);
-            userRepository.save(otherRequester);
-
-            //remove this borrow request from the owner's received requests
-            var otherOwner = otherRequest.getOwner();
-            var otherOwnerReceivedRequests = otherOwner.getBorrowRequestsReceived();
-            otherOwnerReceivedRequests.removeIf(br -> br.equals(otherRequest.getBorrowRequestId()));
-            otherOwner.setBorrowRequestsReceived(otherOwnerReceivedRequests);
-            userRepository.save(otherOwner);
-        }
+        ownershipTransferRepository.save(new OwnershipTransfer(bookId, ownerId, requesterId, borrowRequestId, OwnershipTransferReason.BORROW_APPROVED, Instant.now()));
+        bookFilterIndexService.refreshBookAfterCommit(bookId);
+
+        emailService.sendBorrowRequestAcceptedEmail(ownerId, requesterId, bookId);
+        emailService.sendBorrowRequestCancelledEmails(ownerId, bookId, cancelledRequesterIds);
 
         //books owned by the requester should be updated
-        var booksOwnedByRequester = requester.getBookOwned();
-        booksOwnedByRequester.add(book.getBookId());
-        requester.setBookOwned(booksOwnedByRequester);
+        var requester = userRepository.findById(requesterId).get();
+        requester.getBookOwned().add(bookId);
         userRepository.save(requester);
 
         return true;
     }
 
+    // Throws OptimisticLockingFailureException when the request is no longer pending.
+    @Transactional
     public Boolean rejectBorrowRequest(Integer bookId, Integer requesterId, Integer ownerId) {
-        var bookOptional = booksRepository.findById(bookId);
-        var requesterOptional = userRepository.findById(requesterId);
-        var ownerOptional = userRepository.findById(ownerId);
-
-        if (bookOptional.isEmpty() || requesterOptional.isEmpty() || ownerOptional.isEmpty()) {
+        if (!booksRepository.existsById(bookId) || !userRepository.existsById(requesterId) || !userRepository.existsById(ownerId)) {
             return false;
         }
 
-        var book = bookOptional.get();
-        var requester = requesterOptional.get();
-        var owner = ownerOptional.get();
-        
-        // Update the borrow request status
-        BorrowRequests borrowRequest = borrowRequestRepository.findFirstByBookBookIdAndRequesterUserIdAndOwnerUserIdAndStatusOrderByRequestDateAsc(book.getBookId(), requester.getUserId(), owner.getUserId(), BorrowRequestStatus.PENDING);
-        System.out.println(borrowRequest.getBorrowRequestId());
-        if (borrowRequest != null) {
-            borrowRequest.setStatus(BorrowRequestStatus.REJECTED);
-            borrowRequestRepository.save(borrowRequest);
-
-            //remove this borrow request from the owner's received requests
-            var ownerReceivedRequests = owner.getBorrowRequestsReceived();
-            ownerReceivedRequests.removeIf(br -> br.equals(borrowRequest.getBorrowRequestId()));
-            owner.setBorrowRequestsReceived(ownerReceivedRequests);
-            userRepository.save(owner);
-
-            //remove this borrow request from the requester's sent requests
-            var requesterSentRequests = requester.getBorrowRequestsSent();
-            requesterSentRequests.removeIf(br -> br.equals(borrowRequest.getBorrowRequestId()));
-            requester.setBorrowRequestsSent(requesterSentRequests);
-            userRepository.save(requester);
-
-            book.setEnlisted(true);
-            book.setBookStatus(BookStatus.AVAILABLE);
-            booksRepository.save(book);
+        BorrowRequests pendingRequest = borrowRequestRepository.findFirstByBookBookIdAndRequesterUserIdAndOwnerUserIdAndStatusOrderByRequestDateAsc(bookId, requesterId, ownerId, BorrowRequestStatus.PENDING);
+        if (pendingRequest == null) {
+            throw new OptimisticLockingFailureException("No pending borrow request for book " + bookId + " from user " + requesterId);
+        }
+        Integer borrowRequestId = pendingRequest.getBorrowRequestId();
+        if (borrowRequestRepository.transitionStatus(borrowRequestId, BorrowRequestStatus.PENDING, BorrowRequestStatus.REJECTED) == 0) {
+            throw new OptimisticLockingFailureException("Borrow request " + borrowRequestId + " is no longer pending");
+        }
+
+        if (booksRepository.transitionStatus(bookId, BookStatus.REQUESTED, BookStatus.AVAILABLE, true) > 0) {
+            bookFilterIndexService.refreshBookAfterCommit(bookId);
         }
 
         return true;
     }
 
 
-    public List<Books> getBooksBorrowed(String username) {
+    public List<BookListingView> getBorrowedBookListings(String username) {
         var user = userRepository.findByUsername(username);
         if (user.isEmpty()) {
             return new ArrayList<>();
         }
         // fetch the books where the current owner is the user and the book status is BORROWED
-        return booksRepository.findByCurrentOwner_UsernameAndBookStatus(username, BookStatus.BORROWED);
+        return withPreviousOwners(booksRepository.findListingsByOwnerAndBookStatus(username, BookStatus.BORROWED));
     }
 
 
-    @Transactional
-    public void rejectExpiredBorrowRequests() {
-        Instant threeDaysAgo = Instant.now().minus(3, ChronoUnit.DAYS);
-        List<BorrowRequests> expiredRequests = borrowRequestRepository.findByStatusAndRequestDateBefore(BorrowRequestStatus.PENDING, threeDaysAgo);
-
-        for (BorrowRequests request: expiredRequests) {
-            request.setStatus(BorrowRequestStatus.CANCELLED);
-            borrowRequestRepository.save(request);
-
-            Books book = request.getBook();
-            if (book.getBookStatus() == BookStatus.REQUESTED) {
-                boolean otherPendingRequests = borrowRequestRepository
-                                                    .findByBookBookIdAndStatus(book.getBookId(), BorrowRequestStatus.PENDING)
-                                                    .stream()
-                                                    .anyMatch(r -> !r.getBorrowRequestId().equals(request.getBorrowRequestId()));
-                if (!otherPendingRequests) {
-                    book.setBookStatus(BookStatus.AVAILABLE);
-                    book.setEnlisted(true);
-                    booksRepository.save(book);
-                }
-            }
-
-            Users owner = request.getOwner();
-            if (owner!=null) {
-                owner.getBorrowRequestsReceived().remove(request.getBorrowRequestId());
-                userRepository.save(owner);
-            }
-
-            Users requester = request.getRequester();
-            if (requester!=null) {
-                requester.getBorrowRequestsReceived().remove(request.getBorrowRequestId());
-                userRepository.save(requester);
-            }
-        }
+    // Pending requests normally expire at their deadline through BorrowRequestExpiryService; this
+    // sweep is the safety net for anything it missed.
+    public int rejectExpiredBorrowRequests() {
+        return borrowRequestExpiryService.sweep();
     }
 
+    // The archive, its ledger row and the owner's shelf commit together. The owner is read inside the
+    // transaction, so the shelf change is tracked even when the caller's entities are detached.
+    @Transactional
     public Boolean reportBook(Books book, Users user) {
-        if (book.getCurrentOwner() != user) {
+        if (!book.getCurrentOwner().getUserId().equals(user.getUserId())) {
             return false;
         }
         book.setBookStatus(BookStatus.ARCHIVED);
-        var previousOwners = book.getPreviousOwners();
-        previousOwners.add(book.getCurrentOwner());
-        book.setPreviousOwners(previousOwners);
 
-        var owner = book.getCurrentOwner();
+        var owner = userRepository.findById(user.getUserId()).get();
+        ownershipTransferRepository.save(new OwnershipTransfer(book.getBookId(), owner.getUserId(), null, null, OwnershipTransferReason.ARCHIVED, Instant.now()));
         owner.getBookOwned().remove(book.getBookId());
 
         booksRepository.save(book);
         userRepository.save(owner);
+        bookFilterIndexService.refreshBookAfterCommit(book.getBookId());
 
         return true;
     }
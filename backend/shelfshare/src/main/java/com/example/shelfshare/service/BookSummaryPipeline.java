@@ -0,0 +1,110 @@
+package com.example.shelfshare.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.shelfshare.model.NoteSummary;
+import com.example.shelfshare.repository.BooksRepository;
+
+import jakarta.annotation.PreDestroy;
+
+// Recomputes a book's summarized notes and master title in the background, outside any
+// request transaction. Requests for the same book coalesce: a burst inside the debounce
+// window runs once, and a request that arrives while a run is in progress triggers exactly
+// one more run after it.
+@Service
+public class BookSummaryPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookSummaryPipeline.class);
+
+    private final NoteSummarizationService noteSummarizationService;
+    private final CustomTitleService customTitleService;
+    private final BooksRepository booksRepository;
+    private final long debounceMs;
+    private final ScheduledExecutorService workers;
+
+    // present while a run is scheduled or in progress; TRUE when another run is owed
+    private final ConcurrentHashMap<Integer, Boolean> inFlight = new ConcurrentHashMap<>();
+
+    public BookSummaryPipeline(NoteSummarizationService noteSummarizationService,
+                               CustomTitleService customTitleService,
+                               BooksRepository booksRepository,
+                               @Value("${shelfshare.summary.workers:2}") int workers,
+                               @Value("${shelfshare.summary.debounce-ms:2000}") long debounceMs) {
+        this.noteSummarizationService = noteSummarizationService;
+        this.customTitleService = customTitleService;
+        this.booksRepository = booksRepository;
+        this.debounceMs = debounceMs;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newScheduledThreadPool(Math.max(1, workers), runnable -> {
+            Thread thread = new Thread(runnable, "book-summary-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Call from the transaction that added a note; the job is queued only if it commits.
+    public void requestRefreshAfterCommit(Integer bookId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    requestRefresh(bookId);
+                }
+            });
+        } else {
+            requestRefresh(bookId);
+        }
+    }
+
+    public void requestRefresh(Integer bookId) {
+        boolean[] schedule = {false};
+        inFlight.compute(bookId, (id, rerun) -> {
+            if (rerun == null) {
+                schedule[0] = true;
+                return Boolean.FALSE;
+            }
+            return Boolean.TRUE;
+        });
+        if (schedule[0]) {
+            workers.schedule(() -> run(bookId), debounceMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void run(Integer bookId) {
+        do {
+            // requests up to here are covered by this pass; only later ones owe another
+            inFlight.put(bookId, Boolean.FALSE);
+            try {
+                refresh(bookId);
+            } catch (RuntimeException e) {
+                logger.error("Summary refresh failed for book {}", bookId, e);
+            }
+            // drop the entry unless a request came in while refreshing
+        } while (inFlight.compute(bookId, (id, rerun) -> Boolean.TRUE.equals(rerun) ? Boolean.FALSE : null) != null);
+    }
+
+    private void refresh(Integer bookId) {
+        long started = System.currentTimeMillis();
+        NoteSummary summary = noteSummarizationService.summarize(bookId);
+        String masterTitle = customTitleService.getMasterCustomTitle(bookId);
+        booksRepository.updateSummary(bookId, summary.summary(), summary.summarizedThroughNoteId(), masterTitle);
+        logger.info("Refreshed summary for book {} in {} ms", bookId, System.currentTimeMillis() - started);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.shelfshare.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.shelfshare.entity.BorrowRequestStatus;
+import com.example.shelfshare.repository.BooksRepository;
+import com.example.shelfshare.repository.BorrowRequestRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Cancels PENDING borrow requests when their ttl runs out. Every pending request's deadline sits in
+// an in-memory DelayQueue, filled from one indexed query at startup and by borrowBook as requests
+// are made; a worker thread takes requests as they come due and expires them in small batches.
+// Approved, rejected or cancelled requests are simply skipped, because the expiry itself is a
+// compare-and-set on PENDING. The hourly sweep in BorrowRequestCleanupScheduler only catches what
+// the queue missed, e.g. a failed batch or a long outage: it walks overdue requests in id order and
+// expires them in independently committed chunks on a small worker pool.
+@Service
+public class BorrowRequestExpiryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BorrowRequestExpiryService.class);
+
+    private final BorrowRequestRepository borrowRequestRepository;
+    private final BooksRepository booksRepository;
+    private final BookFilterIndexService bookFilterIndexService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+    private final int batchSize;
+    private final DelayQueue<Deadline> deadlines = new DelayQueue<>();
+    private volatile Thread worker;
+    private final ThreadPoolExecutor sweepers;
+    private final Timer deadlineDelay;
+    // seconds the oldest pending request is past its deadline, as of the last sweep
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final AtomicInteger chunksInFlight = new AtomicInteger();
+
+    public BorrowRequestExpiryService(BorrowRequestRepository borrowRequestRepository,
+                                      BooksRepository booksRepository,
+                                      BookFilterIndexService bookFilterIndexService,
+                                      PlatformTransactionManager transactionManager,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${shelfshare.borrow.request-ttl-hours:72}") long ttlHours,
+                                      @Value("${shelfshare.borrow.expiry.batch-size:100}") int batchSize,
+                                      @Value("${shelfshare.borrow.expiry.sweep-workers:2}") int sweepWorkers) {
+        this.borrowRequestRepository = borrowRequestRepository;
+        this.booksRepository = booksRepository;
+        this.bookFilterIndexService = bookFilterIndexService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.batchSize = Math.max(1, batchSize);
+
+        int poolSize = Math.max(1, sweepWorkers);
+        AtomicInteger threadNumber = new AtomicInteger();
+        // a full queue runs the chunk on the sweeping thread, which holds off paging further ahead
+        this.sweepers = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(poolSize * 2), runnable -> {
+                Thread thread = new Thread(runnable, "borrow-request-sweep-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+
+        this.deadlineDelay = Timer.builder("shelfshare.borrow.expiry.delay")
+            .description("How long after its deadline a request was expired by the deadline queue")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void registerMeters() {
+        Gauge.builder("shelfshare.borrow.expiry.queue.size", deadlines, DelayQueue::size).register(meterRegistry);
+        Gauge.builder("shelfshare.borrow.expiry.lag.seconds", lagSeconds, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("shelfshare.borrow.expiry.sweep.chunks.in-flight", chunksInFlight, AtomicInteger::get).register(meterRegistry);
+    }
+
+    // Loads every pending deadline and only then starts the worker, which is created here rather than
+    // in the constructor so it never sees a half-built service.
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        int loaded = 0;
+        for (Object[] row : borrowRequestRepository.findIdAndRequestDateByStatus(BorrowRequestStatus.PENDING)) {
+            schedule((Integer) row[0], (Instant) row[1]);
+            loaded++;
+        }
+        logger.info("Scheduled expiry of {} pending borrow requests", loaded);
+        worker = new Thread(this::run, "borrow-request-expiry");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // Call from the transaction that created the request; it is scheduled only if that commits.
+    public void scheduleAfterCommit(Integer borrowRequestId, Instant requestDate) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    schedule(borrowRequestId, requestDate);
+                }
+            });
+        } else {
+            schedule(borrowRequestId, requestDate);
+        }
+    }
+
+    public void schedule(Integer borrowRequestId, Instant requestDate) {
+        deadlines.add(new Deadline(borrowRequestId, requestDate.plus(ttl)));
+    }
+
+    // Safety net: expires whatever is overdue in the database. Overdue ids are paged in id order and
+    // each page is expired in its own transaction on the sweep pool, so no transaction holds more
+    // than batch-size requests and a failed chunk is simply retried by the next sweep.
+    public synchronized int sweep() {
+        long started = System.currentTimeMillis();
+        Instant cutoff = Instant.now().minus(ttl);
+        updateLag();
+
+        Set<Integer> touchedBookIds = new ConcurrentSkipListSet<>();
+        List<Future<Integer>> chunks = new ArrayList<>();
+        Integer afterId = 0;
+        while (true) {
+            List<Integer> ids = borrowRequestRepository.findIdPageByStatusAndRequestDateBefore(
+                BorrowRequestStatus.PENDING, cutoff, afterId, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            afterId = ids.get(ids.size() - 1);
+            chunksInFlight.incrementAndGet();
+            chunks.add(sweepers.submit(() -> {
+                try {
+                    Expired expired = expire(ids, "sweep");
+                    touchedBookIds.addAll(expired.bookIds());
+                    countChunk("success");
+                    return expired.count();
+                } catch (RuntimeException e) {
+                    countChunk("failure");
+                    logger.error("Expiring borrow requests {}..{} failed", ids.get(0), ids.get(ids.size() - 1), e);
+                    return 0;
+                } finally {
+                    chunksInFlight.decrementAndGet();
+                }
+            }));
+        }
+
+        int expired = 0;
+        for (Future<Integer> chunk : chunks) {
+            try {
+                expired += chunk.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                logger.error("Borrow request sweep chunk failed", e.getCause());
+            }
+        }
+
+        // concurrent chunks can each see the other's requests as still pending; release those books now
+        List<Integer> bookIds = new ArrayList<>(touchedBookIds);
+        for (int from = 0; from < bookIds.size(); from += batchSize) {
+            List<Integer> chunk = bookIds.subList(from, Math.min(from + batchSize, bookIds.size()));
+            transactionTemplate.executeWithoutResult(status -> {
+                if (booksRepository.releaseRequestedWithoutPending(chunk) > 0) {
+                    for (Integer bookId : chunk) {
+                        bookFilterIndexService.refreshBookAfterCommit(bookId);
+                    }
+                }
+            });
+        }
+
+        updateLag();
+        logger.info("Borrow request sweep expired {} requests in {} chunks in {} ms", expired, chunks.size(), System.currentTimeMillis() - started);
+        return expired;
+    }
+
+    // Cancels those of the given requests that are still pending and past their ttl, and puts their
+    // books back on the shelf when no other request for them is pending.
+    private Expired expire(List<Integer> borrowRequestIds, String trigger) {
+        Expired expired = transactionTemplate.execute(status -> {
+            Instant cutoff = Instant.now().minus(ttl);
+            List<Integer> bookIds = new ArrayList<>(new TreeSet<>(borrowRequestRepository.findBookIdsByIdInAndStatusAndRequestDateBefore(
+                borrowRequestIds, BorrowRequestStatus.PENDING, cutoff)));
+            int count = borrowRequestRepository.transitionAllRequestedBefore(
+                borrowRequestIds, BorrowRequestStatus.PENDING, BorrowRequestStatus.CANCELLED, cutoff);
+            if (!bookIds.isEmpty() && booksRepository.releaseRequestedWithoutPending(bookIds) > 0) {
+                for (Integer bookId : bookIds) {
+                    bookFilterIndexService.refreshBookAfterCommit(bookId);
+                }
+            }
+            return new Expired(count, bookIds);
+        });
+        Counter.builder("shelfshare.borrow.expired")
+            .tag("trigger", trigger)
+            .register(meterRegistry)
+            .increment(expired.count());
+        return expired;
+    }
+
+    private void updateLag() {
+        lagSeconds.set(borrowRequestRepository.findOldestRequestDateByStatus(BorrowRequestStatus.PENDING)
+            .map(oldest -> Math.max(0, Duration.between(oldest.plus(ttl), Instant.now()).getSeconds()))
+            .orElse(0L));
+    }
+
+    private void countChunk(String outcome) {
+        Counter.builder("shelfshare.borrow.expiry.sweep.chunks")
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    private void run() {
+        List<Deadline> due = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                due.add(deadlines.take());
+                deadlineDelay.record(Duration.between(due.get(0).expiresAt(), Instant.now()));
+                // anything else already due goes out in the same batch
+                deadlines.drainTo(due, batchSize - 1);
+                List<Integer> ids = new ArrayList<>(due.size());
+                for (Deadline deadline : due) {
+                    ids.add(deadline.borrowRequestId());
+                }
+                int expired = expire(ids, "deadline").count();
+                if (expired > 0) {
+                    logger.info("Expired {} pending borrow requests", expired);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                // the hourly sweep picks these up again
+                logger.error("Expiring {} borrow requests failed", due.size(), e);
+            } finally {
+                due.clear();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        Thread worker = this.worker;
+        if (worker != null) {
+            worker.interrupt();
+        }
+        sweepers.shutdown();
+    }
+
+    private record Expired(int count, List<Integer> bookIds) {}
+
+    private record Deadline(Integer borrowRequestId, Instant expiresAt) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(Instant.now(), expiresAt));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return expiresAt.compareTo(((Deadline) other).expiresAt);
+        }
+    }
+}
@@ -5,11 +5,13 @@ import java.util.List;
 import java.util.Optional; 
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.beans.factory.annotation.Value;
 
+import com.example.shelfshare.config.DownstreamClient;
+import com.example.shelfshare.config.DownstreamUnavailableException;
 import com.example.shelfshare.entity.Notes;
 import com.example.shelfshare.model.CustomTitleRequest;
 import com.example.shelfshare.model.CustomTitleResponse;
@@ -20,12 +22,22 @@ public class CustomTitleService {
     
     private String customTitleGenerationURL= "http://localhost:5000/get_master_title";
 
-    private final RestTemplate restTemplate; 
+    private final DownstreamClient summarizerClient;
     private final NotesService notesService;
+    private final ModelResultCache modelResultCache;
+    private final TitleConsensusEngine titleConsensusEngine;
+    private final String engine;
 
-    public CustomTitleService(RestTemplate restTemplate, NotesService notesService) {
-        this.restTemplate = restTemplate;
+    // engine: "auto" votes locally and only calls the remote model when the titles disagree,
+    // "local" never calls it, "remote" always does.
+    public CustomTitleService(@Qualifier("summarizerClient") DownstreamClient summarizerClient, NotesService notesService, ModelResultCache modelResultCache,
+                              TitleConsensusEngine titleConsensusEngine,
+                              @Value("${shelfshare.title.engine:auto}") String engine) {
+        this.summarizerClient = summarizerClient;
         this.notesService = notesService;
+        this.modelResultCache = modelResultCache;
+        this.titleConsensusEngine = titleConsensusEngine;
+        this.engine = engine;
     }
 
     
@@ -46,22 +58,39 @@ public class CustomTitleService {
             return fallbackTitle; // Return fallback if no titles to summarize, otherwise null
         }
 
+        var votedTitle = resolveLocally(titlesList);
+        if (votedTitle.isPresent()) {
+            return votedTitle.get();
+        }
+        if ("local".equals(engine)) {
+            return fallbackTitle;
+        }
+
+        var cachedTitle = modelResultCache.get(ModelResultCache.MASTER_TITLE, titlesList);
+        if (cachedTitle.isPresent()) {
+            return cachedTitle.get();
+        }
+
         // Create the request payload for the Python API
         CustomTitleRequest requestPayLoad = new CustomTitleRequest(titlesList);
         System.out.println("Request Payload for Custom Title API: " + requestPayLoad);
 
         try {
-            CustomTitleResponse customTitleResponse = restTemplate.postForObject(
-                customTitleGenerationURL, requestPayLoad, CustomTitleResponse.class);
+            CustomTitleResponse customTitleResponse = summarizerClient.execute(restTemplate -> restTemplate.postForObject(
+                customTitleGenerationURL, requestPayLoad, CustomTitleResponse.class));
 
             if (customTitleResponse != null && customTitleResponse.master_title() != null && !customTitleResponse.master_title().trim().isEmpty()) {
                 String master_title = customTitleResponse.master_title();
                 System.out.println("Successfully generated master title for bookId " + bookId + ": " + master_title);
+                modelResultCache.put(ModelResultCache.MASTER_TITLE, titlesList, master_title);
                 return master_title; 
             } else {
                 System.err.println("Error from Python Custom Title API for bookId " + bookId + ": Empty or null response body. Falling back.");
                 return fallbackTitle; 
             }
+        } catch (DownstreamUnavailableException e) {
+            System.err.println("Python Custom Title API unavailable for bookId " + bookId + ": " + e.getMessage() + ". Falling back.");
+            return fallbackTitle;
         } catch (HttpClientErrorException e) {
             System.err.println("HttpClientErrorException communicating with Python Custom Title API for bookId " + bookId + ": " + e.getMessage() + " - " + e.getResponseBodyAsString() + ". Falling back.");
             return fallbackTitle; 
@@ -70,4 +99,15 @@ public class CustomTitleService {
             return fallbackTitle; 
         }
     }
+
+    // The master title when it can be settled without the remote model under the configured engine.
+    public Optional<String> resolveLocally(List<String> titlesList) {
+        if ("local".equals(engine)) {
+            return titleConsensusEngine.pickBest(titlesList);
+        }
+        if ("auto".equals(engine)) {
+            return titleConsensusEngine.pick(titlesList);
+        }
+        return Optional.empty();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.example.shelfshare.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+// Renders the HTML emails in templates/email. The engine keeps each template parsed in its
+// cache, so rendering a batch only evaluates the expressions once per recipient.
+@Service
+public class EmailTemplateService {
+
+    public static final String WELCOME = "email/welcome";
+    public static final String BORROW_REQUEST_RECEIVED = "email/borrow-request-received";
+    public static final String BORROW_REQUEST_ACCEPTED_REQUESTER = "email/borrow-request-accepted-requester";
+    public static final String BORROW_REQUEST_ACCEPTED_OWNER = "email/borrow-request-accepted-owner";
+    public static final String BORROW_REQUEST_CANCELLED = "email/borrow-request-cancelled";
+
+    private static final List<String> TEMPLATES = List.of(
+        WELCOME,
+        BORROW_REQUEST_RECEIVED,
+        BORROW_REQUEST_ACCEPTED_REQUESTER,
+        BORROW_REQUEST_ACCEPTED_OWNER,
+        BORROW_REQUEST_CANCELLED
+    );
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailTemplateService.class);
+
+    private final ITemplateEngine templateEngine;
+    private final String baseUrl;
+
+    public EmailTemplateService(ITemplateEngine templateEngine,
+                                @Value("${shelfshare.mail.base-url:http://localhost:1234}") String baseUrl) {
+        this.templateEngine = templateEngine;
+        this.baseUrl = baseUrl;
+    }
+
+    // Parse every template once up front so the first request after a deploy does not pay for it.
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        for (String template : TEMPLATES) {
+            try {
+                templateEngine.process(template, newContext(Map.of()));
+            } catch (RuntimeException e) {
+                logger.error("Failed to load email template {}", template, e);
+            }
+        }
+    }
+
+    public String render(String template, Map<String, Object> variables) {
+        return templateEngine.process(template, newContext(variables));
+    }
+
+    // One rendered body per entry, in order.
+    public List<String> renderAll(String template, List<Map<String, Object>> variablesPerRecipient) {
+        List<String> bodies = new ArrayList<>(variablesPerRecipient.size());
+        for (Map<String, Object> variables : variablesPerRecipient) {
+            bodies.add(templateEngine.process(template, newContext(variables)));
+        }
+        return bodies;
+    }
+
+    private Context newContext(Map<String, Object> variables) {
+        Context context = new Context();
+        context.setVariable("baseUrl", baseUrl);
+        context.setVariables(variables);
+        return context;
+    }
+}
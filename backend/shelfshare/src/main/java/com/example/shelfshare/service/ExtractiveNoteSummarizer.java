@@ -0,0 +1,276 @@
+package com.example.shelfshare.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+// Pure-Java extractive summarizer: picks the most representative sentences across a book's notes
+// by TF-IDF and returns them in their original order. No network, a few milliseconds per book, so
+// it stands in for the remote model when that is down or its breaker is open. Runs on a small
+// bounded pool so a burst of fallbacks cannot take over the CPU.
+@Service
+public class ExtractiveNoteSummarizer implements NoteSummarizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExtractiveNoteSummarizer.class);
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "been", "but", "by", "for", "from", "had", "has",
+        "have", "he", "her", "his", "i", "if", "in", "into", "is", "it", "its", "me", "my", "of", "on",
+        "or", "our", "she", "so", "that", "the", "their", "them", "then", "there", "these", "they",
+        "this", "to", "too", "very", "was", "we", "were", "what", "when", "which", "who", "will",
+        "with", "would", "you", "your"
+    );
+
+    // sentences sharing more than this fraction of their terms with a chosen one are skipped
+    private static final double MAX_OVERLAP = 0.5;
+
+    private final int maxSentences;
+    private final double ratio;
+    private final long timeoutMs;
+    private final ThreadPoolExecutor workers;
+
+    public ExtractiveNoteSummarizer(@Value("${shelfshare.summary.extractive.max-sentences:5}") int maxSentences,
+                                    @Value("${shelfshare.summary.extractive.ratio:0.2}") double ratio,
+                                    @Value("${shelfshare.summary.extractive.workers:2}") int workers,
+                                    @Value("${shelfshare.summary.extractive.queue-capacity:32}") int queueCapacity,
+                                    @Value("${shelfshare.summary.extractive.timeout-ms:2000}") long timeoutMs) {
+        this.maxSentences = Math.max(1, maxSentences);
+        this.ratio = ratio;
+        this.timeoutMs = timeoutMs;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        int poolSize = Math.max(1, workers);
+        this.workers = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                Thread thread = new Thread(runnable, "extractive-summary-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @Override
+    public String name() {
+        return "extractive";
+    }
+
+    // An incremental call is treated as the previous summary followed by the new notes.
+    @Override
+    public Optional<String> summarize(Integer bookId, List<String> notes, String previousSummary) {
+        List<String> texts = notes;
+        if (previousSummary != null) {
+            texts = new ArrayList<>(notes.size() + 1);
+            texts.add(previousSummary);
+            texts.addAll(notes);
+        }
+        List<String> input = texts;
+        Future<String> result;
+        try {
+            result = workers.submit(() -> extract(input, maxSentences, ratio));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Extractive summarizer busy, skipping book {}", bookId);
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(result.get(timeoutMs, TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            logger.warn("Extractive summary for book {} took longer than {} ms", bookId, timeoutMs);
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            logger.error("Extractive summary failed for book {}", bookId, e.getCause());
+            return Optional.empty();
+        }
+    }
+
+    // Sentence score is the summed weight of its distinct terms, normalized by sqrt(length) so long
+    // run-on sentences do not win by size alone. A term's weight is its frequency across all notes
+    // times its inverse sentence frequency, which favors themes several readers mention.
+    static String extract(List<String> texts, int maxSentences, double ratio) {
+        List<String> sentences = new ArrayList<>();
+        for (String text : texts) {
+            if (text != null) {
+                splitSentences(text, sentences);
+            }
+        }
+        if (sentences.isEmpty()) {
+            return null;
+        }
+
+        Map<String, Integer> termIds = new HashMap<>();
+        int[][] sentenceTerms = new int[sentences.size()][];
+        int[] tokenCounts = new int[sentences.size()];
+        int[] termFrequency = new int[64];
+        int[] documentFrequency = new int[64];
+        int[] lastSeenIn = new int[64];
+        Arrays.fill(lastSeenIn, -1);
+
+        int[] buffer = new int[64];
+        for (int s = 0; s < sentences.size(); s++) {
+            String sentence = sentences.get(s);
+            int distinct = 0;
+            int tokens = 0;
+            int i = 0;
+            int length = sentence.length();
+            while (i < length) {
+                while (i < length && !Character.isLetterOrDigit(sentence.charAt(i))) {
+                    i++;
+                }
+                int start = i;
+                while (i < length && (Character.isLetterOrDigit(sentence.charAt(i)) || sentence.charAt(i) == '\'')) {
+                    i++;
+                }
+                if (i == start) {
+                    continue;
+                }
+                String token = sentence.substring(start, i).toLowerCase(Locale.ROOT);
+                if (token.length() < 2 || STOP_WORDS.contains(token)) {
+                    continue;
+                }
+                tokens++;
+                int id = termIds.computeIfAbsent(token, t -> termIds.size());
+                if (id >= termFrequency.length) {
+                    int grown = termFrequency.length * 2;
+                    termFrequency = Arrays.copyOf(termFrequency, grown);
+                    documentFrequency = Arrays.copyOf(documentFrequency, grown);
+                    int oldLength = lastSeenIn.length;
+                    lastSeenIn = Arrays.copyOf(lastSeenIn, grown);
+                    Arrays.fill(lastSeenIn, oldLength, grown, -1);
+                }
+                termFrequency[id]++;
+                if (lastSeenIn[id] != s) {
+                    lastSeenIn[id] = s;
+                    documentFrequency[id]++;
+                    if (distinct == buffer.length) {
+                        buffer = Arrays.copyOf(buffer, distinct * 2);
+                    }
+                    buffer[distinct++] = id;
+                }
+            }
+            sentenceTerms[s] = Arrays.copyOf(buffer, distinct);
+            tokenCounts[s] = tokens;
+        }
+
+        int sentenceCount = sentences.size();
+        double[] weights = new double[termIds.size()];
+        for (int t = 0; t < weights.length; t++) {
+            weights[t] = termFrequency[t] * Math.log(1.0 + (double) sentenceCount / documentFrequency[t]);
+        }
+        double[] scores = new double[sentenceCount];
+        Integer[] order = new Integer[sentenceCount];
+        for (int s = 0; s < sentenceCount; s++) {
+            double sum = 0;
+            for (int term : sentenceTerms[s]) {
+                sum += weights[term];
+            }
+            scores[s] = tokenCounts[s] == 0 ? 0 : sum / Math.sqrt(tokenCounts[s]);
+            order[s] = s;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+
+        int wanted = Math.max(1, Math.min(maxSentences, (int) Math.ceil(sentenceCount * ratio)));
+        boolean[] chosen = new boolean[sentenceCount];
+        int picked = 0;
+        for (int s : order) {
+            if (picked == wanted) {
+                break;
+            }
+            if (!overlapsChosen(s, sentenceTerms, chosen)) {
+                chosen[s] = true;
+                picked++;
+            }
+        }
+
+        StringBuilder summary = new StringBuilder();
+        for (int s = 0; s < sentenceCount; s++) {
+            if (chosen[s]) {
+                if (summary.length() > 0) {
+                    summary.append(' ');
+                }
+                String sentence = sentences.get(s);
+                summary.append(sentence);
+                char last = sentence.charAt(sentence.length() - 1);
+                if (last != '.' && last != '!' && last != '?') {
+                    summary.append('.');
+                }
+            }
+        }
+        return summary.toString();
+    }
+
+    private static boolean overlapsChosen(int candidate, int[][] sentenceTerms, boolean[] chosen) {
+        int[] terms = sentenceTerms[candidate];
+        if (terms.length == 0) {
+            return false;
+        }
+        for (int s = 0; s < chosen.length; s++) {
+            if (!chosen[s] || sentenceTerms[s].length == 0) {
+                continue;
+            }
+            int shared = 0;
+            for (int a : terms) {
+                for (int b : sentenceTerms[s]) {
+                    if (a == b) {
+                        shared++;
+                        break;
+                    }
+                }
+            }
+            if ((double) shared / Math.min(terms.length, sentenceTerms[s].length) > MAX_OVERLAP) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Splits on sentence-ending punctuation followed by whitespace, and on line breaks.
+    private static void splitSentences(String text, List<String> into) {
+        int start = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            boolean boundary = c == '\n'
+                || ((c == '.' || c == '!' || c == '?') && (i + 1 == length || Character.isWhitespace(text.charAt(i + 1))));
+            if (boundary) {
+                addSentence(text, start, c == '\n' ? i : i + 1, into);
+                start = i + 1;
+            }
+        }
+        addSentence(text, start, length, into);
+    }
+
+    private static void addSentence(String text, int start, int end, List<String> into) {
+        String sentence = text.substring(start, end).trim();
+        if (!sentence.isEmpty() && sentence.chars().anyMatch(Character::isLetterOrDigit)) {
+            into.add(sentence);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.shelfshare.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+
+// Sends batches of messages over a small pool of connected, authenticated SMTP transports,
+// so the STARTTLS handshake and AUTH are paid once per connection instead of once per message.
+// A shared token bucket keeps the total send rate under the provider's limit.
+@Service
+public class MailDeliveryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MailDeliveryService.class);
+
+    private final JavaMailSenderImpl mailSender;
+    private final int poolSize;
+    private final long idleTimeoutMs;
+    private final SendRateLimiter rateLimiter;
+
+    private final BlockingQueue<PooledTransport> idleTransports;
+    private final AtomicInteger openTransports = new AtomicInteger();
+    private final ExecutorService senders;
+
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Timer sendTimer;
+
+    public MailDeliveryService(JavaMailSenderImpl mailSender,
+                               MeterRegistry meterRegistry,
+                               @Value("${shelfshare.mail.smtp.pool-size:2}") int poolSize,
+                               @Value("${shelfshare.mail.smtp.idle-timeout-ms:60000}") long idleTimeoutMs,
+                               @Value("${shelfshare.mail.smtp.max-per-second:5}") double maxPerSecond) {
+        this.mailSender = mailSender;
+        this.poolSize = Math.max(1, poolSize);
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.rateLimiter = new SendRateLimiter(maxPerSecond);
+        this.idleTransports = new ArrayBlockingQueue<>(this.poolSize);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(this.poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "smtp-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.sentCounter = Counter.builder("shelfshare.mail.messages").tag("result", "sent").register(meterRegistry);
+        this.failedCounter = Counter.builder("shelfshare.mail.messages").tag("result", "failed").register(meterRegistry);
+        this.sendTimer = Timer.builder("shelfshare.mail.send").description("Time to hand one message to SMTP").register(meterRegistry);
+        Gauge.builder("shelfshare.mail.smtp.connections", openTransports, AtomicInteger::get).register(meterRegistry);
+    }
+
+    // Sends every message and returns one entry per message, in order: null when it was accepted
+    // by the server, otherwise the exception. The batch is split across the pooled connections.
+    public List<Exception> sendAll(List<MimeMessage> messages) {
+        List<Exception> results = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            results.add(null);
+        }
+        if (messages.isEmpty()) {
+            return results;
+        }
+
+        int lanes = Math.min(poolSize, messages.size());
+        List<Future<?>> futures = new ArrayList<>(lanes);
+        for (int lane = 0; lane < lanes; lane++) {
+            int firstIndex = lane;
+            futures.add(senders.submit(() -> sendLane(messages, firstIndex, lanes, results)));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                logger.error("SMTP sender failed", e);
+            }
+        }
+        return results;
+    }
+
+    // One connection sends messages firstIndex, firstIndex + stride, ... back to back.
+    private void sendLane(List<MimeMessage> messages, int firstIndex, int stride, List<Exception> results) {
+        PooledTransport transport = null;
+        try {
+            for (int i = firstIndex; i < messages.size(); i += stride) {
+                if (transport == null) {
+                    try {
+                        transport = borrowTransport();
+                    } catch (MessagingException | InterruptedException e) {
+                        // cannot reach the server: fail the rest of this lane for a later retry
+                        for (int j = i; j < messages.size(); j += stride) {
+                            results.set(j, e);
+                            failedCounter.increment();
+                        }
+                        if (e instanceof InterruptedException) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return;
+                    }
+                }
+                MimeMessage message = messages.get(i);
+                try {
+                    rateLimiter.acquire();
+                    long started = System.nanoTime();
+                    message.saveChanges();
+                    transport.transport.sendMessage(message, message.getAllRecipients());
+                    sendTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                    sentCounter.increment();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    results.set(i, e);
+                    failedCounter.increment();
+                    return;
+                } catch (Exception e) {
+                    results.set(i, e);
+                    failedCounter.increment();
+                    // a rejected recipient leaves the session usable; a dropped connection does not
+                    if (!transport.transport.isConnected()) {
+                        discard(transport);
+                        transport = null;
+                    }
+                }
+            }
+        } finally {
+            if (transport != null) {
+                release(transport);
+            }
+        }
+    }
+
+    private PooledTransport borrowTransport() throws MessagingException, InterruptedException {
+        while (true) {
+            PooledTransport pooled = idleTransports.poll();
+            if (pooled != null) {
+                if (System.currentTimeMillis() - pooled.lastUsedAt < idleTimeoutMs && pooled.transport.isConnected()) {
+                    return pooled;
+                }
+                discard(pooled);
+                continue;
+            }
+            int open = openTransports.get();
+            if (open < poolSize && openTransports.compareAndSet(open, open + 1)) {
+                try {
+                    return connect();
+                } catch (MessagingException | RuntimeException e) {
+                    openTransports.decrementAndGet();
+                    throw e;
+                }
+            }
+            pooled = idleTransports.poll(1, TimeUnit.SECONDS);
+            if (pooled != null) {
+                idleTransports.offer(pooled);
+            }
+        }
+    }
+
+    private PooledTransport connect() throws MessagingException {
+        Transport transport = mailSender.getSession().getTransport(mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp");
+        String username = mailSender.getUsername();
+        String password = mailSender.getPassword();
+        if ("".equals(username)) {
+            username = null;
+            password = null;
+        }
+        transport.connect(mailSender.getHost(), mailSender.getPort(), username, password);
+        logger.info("Opened SMTP connection to {}:{}", mailSender.getHost(), mailSender.getPort());
+        return new PooledTransport(transport);
+    }
+
+    private void release(PooledTransport pooled) {
+        pooled.lastUsedAt = System.currentTimeMillis();
+        if (!idleTransports.offer(pooled)) {
+            discard(pooled);
+        }
+    }
+
+    private void discard(PooledTransport pooled) {
+        openTransports.decrementAndGet();
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            logger.debug("Error closing SMTP connection", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdown();
+        PooledTransport pooled;
+        while ((pooled = idleTransports.poll()) != null) {
+            discard(pooled);
+        }
+    }
+
+    private static final class PooledTransport {
+        private final Transport transport;
+        private long lastUsedAt = System.currentTimeMillis();
+
+        PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+
+    // Token bucket shared by all connections; a burst of up to one second's worth is allowed.
+    private static final class SendRateLimiter {
+        private final double permitsPerNano;
+        private final double maxPermits;
+        private double permits;
+        private long refilledAt = System.nanoTime();
+
+        SendRateLimiter(double permitsPerSecond) {
+            this.permitsPerNano = permitsPerSecond > 0 ? permitsPerSecond / TimeUnit.SECONDS.toNanos(1) : 0;
+            this.maxPermits = Math.max(1, permitsPerSecond);
+            this.permits = this.maxPermits;
+        }
+
+        void acquire() throws InterruptedException {
+            if (permitsPerNano == 0) {
+                return;
+            }
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                permits = Math.min(maxPermits, permits + (now - refilledAt) * permitsPerNano);
+                refilledAt = now;
+                permits -= 1;
+                // a negative balance is the time this caller owes before sending
+                waitNanos = permits >= 0 ? 0 : (long) (-permits / permitsPerNano);
+            }
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.shelfshare.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.example.shelfshare.entity.ModelResultCacheEntry;
+import com.example.shelfshare.repository.ModelResultCacheRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PostConstruct;
+
+// Content-addressed cache for the summarization and master-title model calls. The key is the
+// SHA-256 of the kind plus the exact ordered inputs, so identical inputs never reach the model
+// twice. A bounded in-memory LRU sits in front of the model_result_cache_entry table, which
+// keeps results across restarts until purgeStale removes them: rows from any other model version,
+// which no key can reach any more, and rows older than the ttl.
+@Service
+public class ModelResultCache {
+
+    public static final String SUMMARY = "summary";
+    public static final String SUMMARY_INCREMENTAL = "summary-incremental";
+    public static final String MASTER_TITLE = "master-title";
+
+    private static final Logger logger = LoggerFactory.getLogger(ModelResultCache.class);
+    private static final int PURGE_BATCH_SIZE = 500;
+
+    private final ModelResultCacheRepository modelResultCacheRepository;
+    private final String modelVersion;
+    private final boolean persistent;
+    private final Duration ttl;
+    private final Map<String, String> memory;
+
+    private final MeterRegistry meterRegistry;
+
+    public ModelResultCache(ModelResultCacheRepository modelResultCacheRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${shelfshare.model-cache.max-entries:10000}") int maxEntries,
+                            @Value("${shelfshare.model-cache.persistent:true}") boolean persistent,
+                            @Value("${shelfshare.model-cache.model-version:1}") String modelVersion,
+                            @Value("${shelfshare.model-cache.ttl-days:90}") long ttlDays) {
+        this.modelResultCacheRepository = modelResultCacheRepository;
+        this.modelVersion = modelVersion;
+        this.meterRegistry = meterRegistry;
+        this.persistent = persistent;
+        this.ttl = Duration.ofDays(ttlDays);
+        this.memory = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @PostConstruct
+    public void registerMeters() {
+        Gauge.builder("shelfshare.model-cache.size", this, cache -> cache.memorySize()).register(meterRegistry);
+    }
+
+    public Optional<String> get(String kind, List<String> inputs) {
+        String key = keyOf(modelVersion, kind, inputs);
+        String result;
+        synchronized (memory) {
+            result = memory.get(key);
+        }
+        if (result != null) {
+            count(kind, "memory");
+            return Optional.of(result);
+        }
+        if (persistent) {
+            try {
+                var stored = modelResultCacheRepository.findById(key);
+                if (stored.isPresent()) {
+                    result = stored.get().getResult();
+                    synchronized (memory) {
+                        memory.put(key, result);
+                    }
+                    count(kind, "db");
+                    return Optional.of(result);
+                }
+            } catch (DataAccessException e) {
+                logger.warn("Model result cache lookup failed, treating as a miss: {}", e.getMessage());
+            }
+        }
+        count(kind, "miss");
+        return Optional.empty();
+    }
+
+    // Only store real model output, never a fallback, or the fallback would stick for these inputs.
+    public void put(String kind, List<String> inputs, String result) {
+        if (result == null) {
+            return;
+        }
+        String key = keyOf(modelVersion, kind, inputs);
+        synchronized (memory) {
+            memory.put(key, result);
+        }
+        if (persistent) {
+            try {
+                modelResultCacheRepository.save(new ModelResultCacheEntry(key, kind, result, modelVersion, Instant.now()));
+            } catch (DataAccessException e) {
+                // a concurrent writer stored the same key first, or the table is unavailable
+                logger.warn("Could not persist model result cache entry: {}", e.getMessage());
+            }
+        }
+    }
+
+    // Deletes stored entries of other model versions and those past the ttl, a batch per statement.
+    public int purgeStale() {
+        if (!persistent) {
+            return 0;
+        }
+        Instant createdBefore = Instant.now().minus(ttl);
+        int purged = 0;
+        List<String> keys;
+        do {
+            keys = modelResultCacheRepository.findStaleKeys(modelVersion, createdBefore, PageRequest.of(0, PURGE_BATCH_SIZE));
+            if (!keys.isEmpty()) {
+                purged += modelResultCacheRepository.deleteByCacheKeyIn(keys);
+            }
+        } while (keys.size() == PURGE_BATCH_SIZE);
+        Counter.builder("shelfshare.model-cache.purged")
+            .register(meterRegistry)
+            .increment(purged);
+        return purged;
+    }
+
+    private int memorySize() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+
+    private void count(String kind, String outcome) {
+        Counter.builder("shelfshare.model-cache.requests")
+            .tag("kind", kind)
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    // Each input is length-prefixed so ["ab", "c"] and ["a", "bc"] hash differently. The model
+    // version is part of the key, so bumping it after a model upgrade retires every old entry.
+    static String keyOf(String modelVersion, String kind, List<String> inputs) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, modelVersion);
+            update(digest, kind);
+            for (String input : inputs) {
+                update(digest, input != null ? input : "");
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+}
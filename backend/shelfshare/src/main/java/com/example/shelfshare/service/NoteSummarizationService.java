@@ -2,60 +2,120 @@ package com.example.shelfshare.service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
-import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
 
 import com.example.shelfshare.entity.Notes;
-import com.example.shelfshare.model.NoteSummarizationRequest;
-import com.example.shelfshare.model.NoteSummarizationResponse;
+import com.example.shelfshare.model.NoteSummary;
+import com.example.shelfshare.model.SummaryBatchItem;
+import com.example.shelfshare.model.SummaryBatchResult;
+import com.example.shelfshare.repository.BooksRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 @Service
 public class NoteSummarizationService {
 
-    private String noteSummarizationURL = "http://localhost:5000/get_summarized_text";
+    private final RemoteNoteSummarizer remoteSummarizer;
 
-    private final RestTemplate restTemplate;
+    private final ExtractiveNoteSummarizer extractiveSummarizer;
 
     private final NotesService notesService;
 
-    public NoteSummarizationService(RestTemplate restTemplate, NotesService notesService) {
+    private final BooksRepository booksRepository;
+
+    private final MeterRegistry meterRegistry;
+
+    private final boolean incrementalEnabled;
+
+    private final String engine;
+
+    // engine: "auto" tries the remote model and falls back to the extractive summarizer, "remote"
+    // falls back to the latest note instead, "extractive" never calls the remote model.
+    public NoteSummarizationService(RemoteNoteSummarizer remoteSummarizer, ExtractiveNoteSummarizer extractiveSummarizer,
+                                    NotesService notesService, BooksRepository booksRepository, MeterRegistry meterRegistry,
+                                    @Value("${shelfshare.summary.incremental:true}") boolean incrementalEnabled,
+                                    @Value("${shelfshare.summary.engine:auto}") String engine) {
+        this.remoteSummarizer = remoteSummarizer;
+        this.extractiveSummarizer = extractiveSummarizer;
         this.notesService = notesService;
-        this.restTemplate = restTemplate;
+        this.booksRepository = booksRepository;
+        this.meterRegistry = meterRegistry;
+        this.incrementalEnabled = incrementalEnabled;
+        this.engine = engine;
     }
 
-    public String getSummarizedNoteContent(Integer bookId) {
-        List<String> notesContentList = new ArrayList<>();
-        var notesList = notesService.findAllNotesByBookId(bookId);
-        for (Notes note : notesList) {
-            notesContentList.add(note.getNoteContent());
+    // Folds only the notes written since the stored summary into it. Without a stored summary and
+    // watermark, or when the incremental call fails, the summary is rebuilt from every note.
+    public NoteSummary summarize(Integer bookId) {
+        var current = booksRepository.findNoteSummaryByBookId(bookId).orElse(new NoteSummary(null, null));
+        if (incrementalEnabled && usesRemote() && current.summary() != null && current.summarizedThroughNoteId() != null) {
+            var newNotes = notesService.findNotesByBookIdAfter(bookId, current.summarizedThroughNoteId());
+            if (newNotes.isEmpty()) {
+                return current;
+            }
+            var incremental = timed(remoteSummarizer, bookId, contentsOf(newNotes), current.summary());
+            if (incremental.isPresent()) {
+                return new NoteSummary(incremental.get(), newNotes.get(newNotes.size() - 1).getNoteId());
+            }
+            System.err.println("Incremental summarization failed for bookId " + bookId + ", rebuilding from all notes");
         }
+        return summarizeAll(bookId);
+    }
 
-        NoteSummarizationRequest requestPayLoad = new NoteSummarizationRequest(notesContentList);
+    public NoteSummary summarizeAll(Integer bookId) {
+        var notesList = notesService.findAllNotesByBookId(bookId);
+        if (notesList.isEmpty()) {
+            return new NoteSummary(null, null);
+        }
+        List<String> contents = contentsOf(notesList);
 
+        if (usesRemote()) {
+            var summary = timed(remoteSummarizer, bookId, contents, null);
+            if (summary.isPresent()) {
+                return new NoteSummary(summary.get(), notesList.get(notesList.size() - 1).getNoteId());
+            }
+        }
+        // fallbacks carry no watermark, so the next run rebuilds in full and retries the model
+        if (!"remote".equals(engine)) {
+            var extract = timed(extractiveSummarizer, bookId, contents, null);
+            if (extract.isPresent()) {
+                return new NoteSummary(extract.get(), null);
+            }
+        }
         var mostRecentNote = notesService.getMostRecentNoteForBook(bookId);
+        return new NoteSummary(mostRecentNote.isPresent() ? mostRecentNote.get().getNoteContent() : null, null);
+    }
 
-        try {
-            ResponseEntity<NoteSummarizationResponse> summarizedResponse = restTemplate.postForEntity(
-                noteSummarizationURL, requestPayLoad, NoteSummarizationResponse.class);
-
-            if (summarizedResponse.getStatusCode().is2xxSuccessful() && summarizedResponse.getBody() != null) {
-                return summarizedResponse.getBody().summary();
-            } else {
-                // Log the error from the Python API
-                System.err.println("Error from Python API for bookId " + bookId + ": " +
-                                summarizedResponse.getStatusCode() + " - " + summarizedResponse.getBody());
-                return mostRecentNote.isPresent() ? mostRecentNote.get().getNoteContent() : null;
-            }
-        } catch (HttpClientErrorException e) {
-            System.err.println("Error communicating with Python API for bookId " + bookId + ": " + e.getResponseBodyAsString());
-            return mostRecentNote.isPresent() ? mostRecentNote.get().getNoteContent() : null;
-        } catch (Exception e) {
-            System.err.println("Failed to connect to Python API for bookId " + bookId + ": " + e.getMessage());
-            return mostRecentNote.isPresent() ? mostRecentNote.get().getNoteContent() : null;
+    public Map<Integer, SummaryBatchResult> summarizeBatch(List<SummaryBatchItem> items) {
+        return remoteSummarizer.summarizeBatch(items);
+    }
+
+    private boolean usesRemote() {
+        return !"extractive".equals(engine);
+    }
+
+    private Optional<String> timed(NoteSummarizer summarizer, Integer bookId, List<String> notes, String previousSummary) {
+        long started = System.nanoTime();
+        Optional<String> summary = summarizer.summarize(bookId, notes, previousSummary);
+        Timer.builder("shelfshare.summary.engine")
+            .tag("engine", summarizer.name())
+            .tag("outcome", summary.isPresent() ? "success" : "failure")
+            .register(meterRegistry)
+            .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return summary;
+    }
+
+    private static List<String> contentsOf(List<Notes> notes) {
+        List<String> contents = new ArrayList<>(notes.size());
+        for (Notes note : notes) {
+            contents.add(note.getNoteContent());
         }
+        return contents;
     }
-    
 }
@@ -0,0 +1,14 @@
+package com.example.shelfshare.service;
+
+import java.util.List;
+import java.util.Optional;
+
+// A summarization engine. Returns empty when it cannot produce a summary, so the caller can move
+// on to the next engine or its fallback.
+public interface NoteSummarizer {
+
+    String name();
+
+    // previousSummary is non-null for an incremental update; notes then holds only the new notes.
+    Optional<String> summarize(Integer bookId, List<String> notes, String previousSummary);
+}
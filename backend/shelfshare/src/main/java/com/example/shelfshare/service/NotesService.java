@@ -1,16 +1,24 @@
 package com.example.shelfshare.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.stereotype.Service;
 
 import com.example.shelfshare.entity.Notes;
+import com.example.shelfshare.model.LatestNoteView;
 import com.example.shelfshare.repository.NotesRepository;
 
 @Service
 public class NotesService {
 
+    private static final int LATEST_NOTES_BATCH_SIZE = 500;
+
     private final NotesRepository notesRepository;
 
     public NotesService(NotesRepository notesRepository) {
@@ -25,7 +33,34 @@ public class NotesService {
         return notesRepository.findTopByBookBookIdOrderByTimestampDesc(bookId);
     }
 
+    // Latest note per book for a whole listing, keyed by bookId; books without notes are absent.
+    public Map<Integer, LatestNoteView> getMostRecentNotesForBooks(Collection<Integer> bookIds) {
+        Map<Integer, LatestNoteView> latestNotes = new HashMap<>();
+        List<Integer> ids = new ArrayList<>(bookIds);
+        for (int from = 0; from < ids.size(); from += LATEST_NOTES_BATCH_SIZE) {
+            var chunk = ids.subList(from, Math.min(from + LATEST_NOTES_BATCH_SIZE, ids.size()));
+            for (LatestNoteView note : notesRepository.findLatestNotesByBookIdIn(chunk)) {
+                latestNotes.put(note.getBookId(), note);
+            }
+        }
+        return latestNotes;
+    }
+
+    // oldest first, so the same notes always produce the same model input
     public List<Notes> findAllNotesByBookId(Integer bookId) {
-        return notesRepository.findByBookBookId(bookId);
+        return notesRepository.findByBookBookIdOrderByNoteIdAsc(bookId);
+    }
+
+    // Notes of several books in one query, grouped by book and oldest first within each.
+    public Map<Integer, List<Notes>> findAllNotesByBookIds(Collection<Integer> bookIds) {
+        Map<Integer, List<Notes>> notesByBook = new LinkedHashMap<>();
+        for (Notes note : notesRepository.findByBookBookIdInOrderByBookBookIdAscNoteIdAsc(bookIds)) {
+            notesByBook.computeIfAbsent(note.getBook().getBookId(), id -> new ArrayList<>()).add(note);
+        }
+        return notesByBook;
+    }
+
+    public List<Notes> findNotesByBookIdAfter(Integer bookId, Integer afterNoteId) {
+        return notesRepository.findByBookBookIdAndNoteIdGreaterThanOrderByNoteIdAsc(bookId, afterNoteId);
     }
 }
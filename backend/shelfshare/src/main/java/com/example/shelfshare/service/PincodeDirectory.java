@@ -0,0 +1,140 @@
+package com.example.shelfshare.service;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.shelfshare.model.UserAddressResponse;
+
+// Offline pincode directory, memory-mapped from the file built by PincodeDirectoryBuilder. Lookups
+// binary-search the fixed-width entry table in place, so the only allocations are the strings of
+// the returned address. Disabled when shelfshare.pincode.directory.path is empty or unreadable.
+//
+// File layout, big-endian:
+//   header   MAGIC (int), entry count (int), string table offset (int)
+//   entries  sorted by pincode, ENTRY_SIZE bytes each:
+//            pincode, district ref, state ref, country ref, first area ref, area count (all int)
+//   strings  u16 length + UTF-8 bytes each; a ref is an offset into this table. A pincode's
+//            areas are stored back to back starting at its first area ref.
+@Service
+public class PincodeDirectory {
+
+    public static final int MAGIC = 0x50494e31; // "PIN1"
+    public static final int HEADER_SIZE = 12;
+    public static final int ENTRY_SIZE = 24;
+
+    private static final Logger logger = LoggerFactory.getLogger(PincodeDirectory.class);
+
+    private final MappedByteBuffer data;
+    private final int entryCount;
+    private final int stringTableOffset;
+
+    public PincodeDirectory(@Value("${shelfshare.pincode.directory.path:}") String path) {
+        MappedByteBuffer mapped = null;
+        int entries = 0;
+        int strings = 0;
+        if (path != null && !path.isBlank()) {
+            try (FileChannel channel = FileChannel.open(Path.of(path), StandardOpenOption.READ)) {
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                mapped.order(ByteOrder.BIG_ENDIAN);
+                if (mapped.getInt(0) != MAGIC) {
+                    throw new IOException("not a pincode directory file");
+                }
+                entries = mapped.getInt(4);
+                strings = mapped.getInt(8);
+                logger.info("Loaded offline pincode directory {} with {} pincodes ({} bytes)", path, entries, Files.size(Path.of(path)));
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Offline pincode directory {} unavailable, using the remote API only: {}", path, e.getMessage());
+                mapped = null;
+                entries = 0;
+            }
+        }
+        this.data = mapped;
+        this.entryCount = entries;
+        this.stringTableOffset = strings;
+    }
+
+    public boolean isLoaded() {
+        return data != null;
+    }
+
+    public int size() {
+        return entryCount;
+    }
+
+    // Expects a pincode that already passed format validation.
+    public Optional<UserAddressResponse> find(String pincode) {
+        if (data == null) {
+            return Optional.empty();
+        }
+        int key = parse(pincode);
+        if (key < 0) {
+            return Optional.empty();
+        }
+        int low = 0;
+        int high = entryCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int candidate = data.getInt(HEADER_SIZE + mid * ENTRY_SIZE);
+            if (candidate < key) {
+                low = mid + 1;
+            } else if (candidate > key) {
+                high = mid - 1;
+            } else {
+                return Optional.of(read(HEADER_SIZE + mid * ENTRY_SIZE));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private UserAddressResponse read(int entry) {
+        String district = string(data.getInt(entry + 4));
+        String state = string(data.getInt(entry + 8));
+        String country = string(data.getInt(entry + 12));
+        int ref = data.getInt(entry + 16);
+        int areaCount = data.getInt(entry + 20);
+        List<String> areas = new ArrayList<>(areaCount);
+        for (int i = 0; i < areaCount; i++) {
+            int length = data.getShort(stringTableOffset + ref) & 0xffff;
+            areas.add(string(ref));
+            ref += 2 + length;
+        }
+        return new UserAddressResponse(areas, district, state, country, "Number of Post office(s) found: " + areaCount);
+    }
+
+    private String string(int ref) {
+        int at = stringTableOffset + ref;
+        int length = data.getShort(at) & 0xffff;
+        byte[] bytes = new byte[length];
+        data.get(at + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int parse(String pincode) {
+        if (pincode.length() > 9) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < pincode.length(); i++) {
+            char c = pincode.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
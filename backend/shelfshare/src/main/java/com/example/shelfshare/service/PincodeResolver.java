@@ -0,0 +1,249 @@
+package com.example.shelfshare.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import com.example.shelfshare.config.DownstreamClient;
+import com.example.shelfshare.entity.PincodeAddress;
+import com.example.shelfshare.model.UserAddressResponse;
+import com.example.shelfshare.repository.PincodeAddressRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PostConstruct;
+
+// Resolves pincodes to addresses through postalpincode.in, which is slow and shared by every
+// anonymous registration. Answers are kept in a bounded in-memory LRU in front of the
+// pincode_address table, with a long TTL for known pincodes and a shorter one for pincodes the
+// API does not know. Concurrent lookups of the same pincode share one upstream call, and an
+// expired entry is still served when the upstream is unreachable. When the offline
+// PincodeDirectory is loaded it answers first, and the API is only an optional fallback for misses.
+@Service
+public class PincodeResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(PincodeResolver.class);
+
+    private static final Pattern PINCODE = Pattern.compile("[1-9][0-9]{5}");
+
+    private final DownstreamClient pincodeClient;
+    private final PincodeDirectory pincodeDirectory;
+    private final boolean remoteFallback;
+    private final PincodeAddressRepository pincodeAddressRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Duration foundTtl;
+    private final Duration notFoundTtl;
+    private final boolean persistent;
+    private final Map<String, CachedAddress> memory;
+    private final ConcurrentHashMap<String, CompletableFuture<UserAddressResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public PincodeResolver(@Qualifier("pincodeClient") DownstreamClient pincodeClient,
+                           PincodeDirectory pincodeDirectory,
+                           PincodeAddressRepository pincodeAddressRepository,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${shelfshare.pincode.cache.max-entries:20000}") int maxEntries,
+                           @Value("${shelfshare.pincode.cache.ttl-hours:720}") long foundTtlHours,
+                           @Value("${shelfshare.pincode.cache.not-found-ttl-hours:24}") long notFoundTtlHours,
+                           @Value("${shelfshare.pincode.cache.persistent:true}") boolean persistent,
+                           @Value("${shelfshare.pincode.directory.remote-fallback:true}") boolean remoteFallback) {
+        this.pincodeClient = pincodeClient;
+        this.pincodeDirectory = pincodeDirectory;
+        this.remoteFallback = remoteFallback;
+        this.pincodeAddressRepository = pincodeAddressRepository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.foundTtl = Duration.ofHours(foundTtlHours);
+        this.notFoundTtl = Duration.ofHours(notFoundTtlHours);
+        this.persistent = persistent;
+        this.memory = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedAddress> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @PostConstruct
+    public void registerMeters() {
+        Gauge.builder("shelfshare.pincode.cache.size", this, resolver -> resolver.memorySize()).register(meterRegistry);
+    }
+
+    public UserAddressResponse resolve(String pincode) {
+        if (pincode == null || pincode.isEmpty()) {
+            return new UserAddressResponse(Collections.emptyList(), null, null, null, "Pincode cannot be null or empty");
+        }
+        String key = pincode.trim();
+        if (!PINCODE.matcher(key).matches()) {
+            count("invalid");
+            return new UserAddressResponse(Collections.emptyList(), null, null, null, "Invalid pincode");
+        }
+
+        if (pincodeDirectory.isLoaded()) {
+            var offline = pincodeDirectory.find(key);
+            if (offline.isPresent()) {
+                count("directory");
+                return offline.get();
+            }
+            if (!remoteFallback) {
+                count("directory_miss");
+                return new UserAddressResponse(Collections.emptyList(), null, null, null, "No records found");
+            }
+        }
+
+        CachedAddress cached;
+        synchronized (memory) {
+            cached = memory.get(key);
+        }
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            count("memory");
+            return cached.response();
+        }
+
+        CompletableFuture<UserAddressResponse> lookup = new CompletableFuture<>();
+        CompletableFuture<UserAddressResponse> existing = inFlight.putIfAbsent(key, lookup);
+        if (existing != null) {
+            count("coalesced");
+            return existing.join();
+        }
+        try {
+            UserAddressResponse response = load(key, cached);
+            lookup.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            lookup.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, lookup);
+        }
+    }
+
+    private UserAddressResponse load(String pincode, CachedAddress stale) {
+        if (persistent) {
+            try {
+                var stored = pincodeAddressRepository.findById(pincode);
+                if (stored.isPresent()) {
+                    CachedAddress fromDb = new CachedAddress(
+                        objectMapper.readValue(stored.get().getResponse(), UserAddressResponse.class), stored.get().getExpiresAt());
+                    if (fromDb.expiresAt().isAfter(Instant.now())) {
+                        remember(pincode, fromDb);
+                        count("db");
+                        return fromDb.response();
+                    }
+                    if (stale == null) {
+                        stale = fromDb;
+                    }
+                }
+            } catch (DataAccessException | JsonProcessingException e) {
+                logger.warn("Pincode cache lookup failed for {}, treating as a miss: {}", pincode, e.getMessage());
+            }
+        }
+
+        count("upstream");
+        Fetched fetched = fetch(pincode);
+        if (fetched.found() == null) {
+            // the upstream failed; an expired answer beats an error
+            return stale != null ? stale.response() : fetched.response();
+        }
+
+        Instant now = Instant.now();
+        CachedAddress fresh = new CachedAddress(fetched.response(), now.plus(fetched.found() ? foundTtl : notFoundTtl));
+        remember(pincode, fresh);
+        if (persistent) {
+            try {
+                pincodeAddressRepository.save(new PincodeAddress(
+                    pincode, fetched.found(), objectMapper.writeValueAsString(fetched.response()), now, fresh.expiresAt()));
+            } catch (DataAccessException | JsonProcessingException e) {
+                logger.warn("Could not persist pincode cache entry for {}: {}", pincode, e.getMessage());
+            }
+        }
+        return fresh.response();
+    }
+
+    // found is TRUE or FALSE for a definite answer worth caching, null for a failure.
+    private Fetched fetch(String pincode) {
+        String url = "http://www.postalpincode.in/api/pincode/" + pincode;
+
+        try {
+            JsonNode response = pincodeClient.execute(restTemplate -> restTemplate.getForObject(url, JsonNode.class));
+
+            if (response == null) {
+                return new Fetched(new UserAddressResponse(Collections.emptyList(), null, null, null, "No response from the API"), null);
+            }
+            if ("Error".equalsIgnoreCase(response.path("Status").asText())) {
+                return new Fetched(new UserAddressResponse(Collections.emptyList(), null, null, null, "No response from the API"), false);
+            }
+
+            String status = response.path("Status").asText();
+            String message = response.path("Message").asText();
+
+            if ("Success".equalsIgnoreCase(status)) {
+                JsonNode postOfficeArray = response.path("PostOffice");
+
+                if (postOfficeArray.isArray() && !postOfficeArray.isEmpty()) {
+                    JsonNode firstPostOffice = postOfficeArray.get(0);
+                    String city = firstPostOffice.path("District").asText();
+                    String state = firstPostOffice.path("State").asText();
+                    String country = firstPostOffice.path("Country").asText();
+
+                    List<String> allAreaNames = new ArrayList<>();
+                    for (JsonNode postOffice : postOfficeArray) {
+                        allAreaNames.add(postOffice.path("Name").asText());
+                    }
+
+                    return new Fetched(new UserAddressResponse(allAreaNames, city, state, country, message), true);
+                }
+                return new Fetched(new UserAddressResponse(Collections.emptyList(), null, null, null, message), false);
+            }
+
+            return new Fetched(new UserAddressResponse(Collections.emptyList(), null, null, null, message), null);
+
+        } catch (Exception e) {
+            return new Fetched(new UserAddressResponse(Collections.emptyList(), null, null, null, "An internal error occurred while processing the request."), null);
+        }
+    }
+
+    private void remember(String pincode, CachedAddress address) {
+        synchronized (memory) {
+            memory.put(pincode, address);
+        }
+    }
+
+    private int memorySize() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+
+    // hit ratio = (directory + memory + db + coalesced) / all outcomes except invalid
+    private void count(String outcome) {
+        Counter.builder("shelfshare.pincode.lookups")
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    private record CachedAddress(UserAddressResponse response, Instant expiresAt) {}
+
+    private record Fetched(UserAddressResponse response, Boolean found) {}
+}
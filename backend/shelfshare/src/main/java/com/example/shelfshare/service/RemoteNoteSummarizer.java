@@ -0,0 +1,110 @@
+package com.example.shelfshare.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.example.shelfshare.config.DownstreamClient;
+import com.example.shelfshare.config.DownstreamUnavailableException;
+import com.example.shelfshare.model.NoteSummarizationRequest;
+import com.example.shelfshare.model.NoteSummarizationResponse;
+import com.example.shelfshare.model.SummaryBatchItem;
+import com.example.shelfshare.model.SummaryBatchRequest;
+import com.example.shelfshare.model.SummaryBatchResponse;
+import com.example.shelfshare.model.SummaryBatchResult;
+
+// The Python summarization model, with results cached by their exact input.
+@Service
+public class RemoteNoteSummarizer implements NoteSummarizer {
+
+    private String noteSummarizationURL = "http://localhost:5000/get_summarized_text";
+
+    private String batchSummarizationURL = "http://localhost:5000/summarize_batch";
+
+    private final DownstreamClient summarizerClient;
+
+    private final ModelResultCache modelResultCache;
+
+    public RemoteNoteSummarizer(@Qualifier("summarizerClient") DownstreamClient summarizerClient, ModelResultCache modelResultCache) {
+        this.summarizerClient = summarizerClient;
+        this.modelResultCache = modelResultCache;
+    }
+
+    @Override
+    public String name() {
+        return "remote";
+    }
+
+    @Override
+    public Optional<String> summarize(Integer bookId, List<String> notesContentList, String previousSummary) {
+        String cacheKind = previousSummary == null ? ModelResultCache.SUMMARY : ModelResultCache.SUMMARY_INCREMENTAL;
+        List<String> cacheInputs = new ArrayList<>();
+        if (previousSummary != null) {
+            cacheInputs.add(previousSummary);
+        }
+        cacheInputs.addAll(notesContentList);
+
+        var cachedSummary = modelResultCache.get(cacheKind, cacheInputs);
+        if (cachedSummary.isPresent()) {
+            return cachedSummary;
+        }
+
+        NoteSummarizationRequest requestPayLoad = new NoteSummarizationRequest(notesContentList, previousSummary);
+
+        try {
+            ResponseEntity<NoteSummarizationResponse> summarizedResponse = summarizerClient.execute(restTemplate -> restTemplate.postForEntity(
+                noteSummarizationURL, requestPayLoad, NoteSummarizationResponse.class));
+
+            if (summarizedResponse.getStatusCode().is2xxSuccessful() && summarizedResponse.getBody() != null
+                    && summarizedResponse.getBody().summary() != null) {
+                String summary = summarizedResponse.getBody().summary();
+                modelResultCache.put(cacheKind, cacheInputs, summary);
+                return Optional.of(summary);
+            } else {
+                // Log the error from the Python API
+                System.err.println("Error from Python API for bookId " + bookId + ": " +
+                                summarizedResponse.getStatusCode() + " - " + summarizedResponse.getBody());
+                return Optional.empty();
+            }
+        } catch (DownstreamUnavailableException e) {
+            System.err.println("Python API unavailable for bookId " + bookId + ": " + e.getMessage());
+            return Optional.empty();
+        } catch (HttpClientErrorException e) {
+            System.err.println("Error communicating with Python API for bookId " + bookId + ": " + e.getResponseBodyAsString());
+            return Optional.empty();
+        } catch (Exception e) {
+            System.err.println("Failed to connect to Python API for bookId " + bookId + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    // Summary and master title for many books in one call, keyed by bookId. Books missing from the
+    // result, or all of them when the call fails, are left to the caller to retry.
+    public Map<Integer, SummaryBatchResult> summarizeBatch(List<SummaryBatchItem> items) {
+        Map<Integer, SummaryBatchResult> results = new HashMap<>();
+        if (items.isEmpty()) {
+            return results;
+        }
+        try {
+            SummaryBatchResponse response = summarizerClient.execute(restTemplate -> restTemplate.postForObject(
+                batchSummarizationURL, new SummaryBatchRequest(items), SummaryBatchResponse.class));
+            if (response != null && response.results() != null) {
+                for (SummaryBatchResult result : response.results()) {
+                    if (result.bookId() != null) {
+                        results.put(result.bookId(), result);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Batch summarization of " + items.size() + " books failed: " + e.getMessage());
+        }
+        return results;
+    }
+}
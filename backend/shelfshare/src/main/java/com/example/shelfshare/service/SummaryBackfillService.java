@@ -0,0 +1,188 @@
+package com.example.shelfshare.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.example.shelfshare.entity.BackfillCheckpoint;
+import com.example.shelfshare.entity.BackfillStatus;
+import com.example.shelfshare.entity.Notes;
+import com.example.shelfshare.model.SummaryBatchItem;
+import com.example.shelfshare.model.SummaryBatchResult;
+import com.example.shelfshare.repository.BackfillCheckpointRepository;
+import com.example.shelfshare.repository.BooksRepository;
+
+// Regenerates summarizedNoteContent and masterCustomTitle for the whole catalog, e.g. after a
+// model upgrade. Books are scanned in id order, sent to the summarizer in multi-book batches,
+// and the checkpoint is saved after every chunk so a stopped or crashed run resumes where it
+// left off. A pause between batches leaves the summarizer room for live enlist traffic.
+@Service
+public class SummaryBackfillService {
+
+    public static final String JOB_NAME = "summary-backfill";
+
+    private static final Logger logger = LoggerFactory.getLogger(SummaryBackfillService.class);
+
+    private final BooksRepository booksRepository;
+    private final NotesService notesService;
+    private final NoteSummarizationService noteSummarizationService;
+    private final ModelResultCache modelResultCache;
+    private final CustomTitleService customTitleService;
+    private final BackfillCheckpointRepository backfillCheckpointRepository;
+    private final int chunkSize;
+    private final int batchSize;
+    private final long pauseMs;
+
+    private volatile boolean running = false;
+    private volatile boolean stopRequested = false;
+
+    public SummaryBackfillService(BooksRepository booksRepository,
+                                  NotesService notesService,
+                                  NoteSummarizationService noteSummarizationService,
+                                  ModelResultCache modelResultCache,
+                                  CustomTitleService customTitleService,
+                                  BackfillCheckpointRepository backfillCheckpointRepository,
+                                  @Value("${shelfshare.summary.backfill.chunk-size:200}") int chunkSize,
+                                  @Value("${shelfshare.summary.backfill.batch-size:16}") int batchSize,
+                                  @Value("${shelfshare.summary.backfill.pause-ms:1000}") long pauseMs) {
+        this.booksRepository = booksRepository;
+        this.notesService = notesService;
+        this.noteSummarizationService = noteSummarizationService;
+        this.modelResultCache = modelResultCache;
+        this.customTitleService = customTitleService;
+        this.backfillCheckpointRepository = backfillCheckpointRepository;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        this.pauseMs = pauseMs;
+    }
+
+    // Starts the job in the background, resuming from the checkpoint unless restart is set or the
+    // last run completed. Returns false when a run is already in progress.
+    public synchronized boolean start(boolean restart) {
+        if (running) {
+            return false;
+        }
+        BackfillCheckpoint checkpoint = backfillCheckpointRepository.findById(JOB_NAME).orElse(new BackfillCheckpoint(JOB_NAME));
+        if (restart || checkpoint.getStatus() == BackfillStatus.COMPLETED) {
+            checkpoint = new BackfillCheckpoint(JOB_NAME);
+        }
+        checkpoint.setStatus(BackfillStatus.RUNNING);
+        checkpoint.setUpdatedAt(Instant.now());
+        BackfillCheckpoint started = backfillCheckpointRepository.save(checkpoint);
+
+        running = true;
+        stopRequested = false;
+        Thread worker = new Thread(() -> run(started), "summary-backfill");
+        worker.setDaemon(true);
+        worker.start();
+        return true;
+    }
+
+    // The current chunk finishes and is checkpointed before the job stops.
+    public void stop() {
+        stopRequested = true;
+    }
+
+    public Optional<BackfillCheckpoint> getStatus() {
+        return backfillCheckpointRepository.findById(JOB_NAME);
+    }
+
+    private void run(BackfillCheckpoint checkpoint) {
+        logger.info("Summary backfill starting after book {}", checkpoint.getLastBookId());
+        try {
+            while (true) {
+                List<Integer> bookIds = booksRepository.findBookIdsAfter(checkpoint.getLastBookId(), PageRequest.of(0, chunkSize));
+                if (bookIds.isEmpty()) {
+                    checkpoint.setStatus(BackfillStatus.COMPLETED);
+                    break;
+                }
+                processChunk(bookIds, checkpoint);
+                checkpoint.setLastBookId(bookIds.get(bookIds.size() - 1));
+                checkpoint.setUpdatedAt(Instant.now());
+                backfillCheckpointRepository.save(checkpoint);
+                if (stopRequested) {
+                    checkpoint.setStatus(BackfillStatus.STOPPED);
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            checkpoint.setStatus(BackfillStatus.STOPPED);
+        } catch (RuntimeException e) {
+            logger.error("Summary backfill failed after book {}", checkpoint.getLastBookId(), e);
+            checkpoint.setStatus(BackfillStatus.FAILED);
+        } finally {
+            checkpoint.setUpdatedAt(Instant.now());
+            backfillCheckpointRepository.save(checkpoint);
+            running = false;
+            logger.info("Summary backfill {}: {} books processed, {} failed, last book {}",
+                checkpoint.getStatus(), checkpoint.getProcessedBooks(), checkpoint.getFailedBooks(), checkpoint.getLastBookId());
+        }
+    }
+
+    private void processChunk(List<Integer> bookIds, BackfillCheckpoint checkpoint) throws InterruptedException {
+        Map<Integer, List<Notes>> notesByBook = notesService.findAllNotesByBookIds(bookIds);
+
+        List<SummaryBatchItem> items = new ArrayList<>();
+        for (var entry : notesByBook.entrySet()) {
+            List<String> notesList = new ArrayList<>();
+            List<String> titlesList = new ArrayList<>();
+            for (Notes note : entry.getValue()) {
+                notesList.add(note.getNoteContent());
+                if (note.getCustomizedTitle() != null && !note.getCustomizedTitle().trim().isEmpty()) {
+                    titlesList.add(note.getCustomizedTitle());
+                }
+            }
+            items.add(new SummaryBatchItem(entry.getKey(), notesList, titlesList));
+        }
+        // books without notes have nothing to summarize
+        checkpoint.setProcessedBooks(checkpoint.getProcessedBooks() + (bookIds.size() - items.size()));
+
+        for (int from = 0; from < items.size(); from += batchSize) {
+            List<SummaryBatchItem> batch = items.subList(from, Math.min(from + batchSize, items.size()));
+            Map<Integer, SummaryBatchResult> results = noteSummarizationService.summarizeBatch(batch);
+            if (results.isEmpty()) {
+                // summarizer unreachable: fail the run so a resume retries this chunk
+                throw new IllegalStateException("Summarizer returned no results for books " + batch.get(0).bookId() + ".." + batch.get(batch.size() - 1).bookId());
+            }
+            for (SummaryBatchItem item : batch) {
+                if (apply(item, results.get(item.bookId()), notesByBook.get(item.bookId()))) {
+                    checkpoint.setProcessedBooks(checkpoint.getProcessedBooks() + 1);
+                } else {
+                    checkpoint.setFailedBooks(checkpoint.getFailedBooks() + 1);
+                }
+            }
+            if (pauseMs > 0) {
+                Thread.sleep(pauseMs);
+            }
+        }
+    }
+
+    private boolean apply(SummaryBatchItem item, SummaryBatchResult result, List<Notes> notes) {
+        if (result == null || result.error() != null || result.summary() == null) {
+            logger.warn("No summary for book {} in backfill: {}", item.bookId(), result != null ? result.error() : "missing from response");
+            return false;
+        }
+        // keep the same title the live path would pick when the readers' titles agree
+        String masterTitle = customTitleService.resolveLocally(item.titlesList()).orElse(result.masterTitle());
+        if (masterTitle == null) {
+            // same fallback as CustomTitleService: the latest note's own title
+            masterTitle = notes.get(notes.size() - 1).getCustomizedTitle();
+        } else if (masterTitle.equals(result.masterTitle())) {
+            modelResultCache.put(ModelResultCache.MASTER_TITLE, item.titlesList(), masterTitle);
+        }
+        modelResultCache.put(ModelResultCache.SUMMARY, item.notesList(), result.summary());
+
+        Integer throughNoteId = notes.get(notes.size() - 1).getNoteId();
+        booksRepository.updateSummaryUnlessNewer(item.bookId(), result.summary(), throughNoteId, masterTitle);
+        return true;
+    }
+}
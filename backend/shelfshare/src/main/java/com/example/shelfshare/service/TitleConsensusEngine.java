@@ -0,0 +1,163 @@
+package com.example.shelfshare.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+// Picks a master title from the readers' own titles by n-gram voting, in process. Every title is
+// a candidate; a candidate scores for each word, pair and triple of words it shares with the other
+// titles, longer phrases counting more. Stop words alone never vote. When the vote is too close, or
+// there are too many titles to trust a simple vote, the result is empty and the caller asks the
+// remote model instead.
+@Service
+public class TitleConsensusEngine {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "as", "at", "by", "for", "from", "in", "is", "of", "on", "or", "the", "to", "with"
+    );
+
+    private static final int MAX_N = 3;
+
+    private final int maxTitles;
+    private final double minMargin;
+
+    public TitleConsensusEngine(@Value("${shelfshare.title.local.max-titles:8}") int maxTitles,
+                                @Value("${shelfshare.title.local.min-margin:0.2}") double minMargin) {
+        this.maxTitles = maxTitles;
+        this.minMargin = minMargin;
+    }
+
+    // Empty when the titles do not clearly agree; see pickBest to always get a winner.
+    public Optional<String> pick(List<String> titles) {
+        return vote(titles, true);
+    }
+
+    public Optional<String> pickBest(List<String> titles) {
+        return vote(titles, false);
+    }
+
+    private Optional<String> vote(List<String> titles, boolean requireClearWinner) {
+        // group spellings of the same normalized title; titles are oldest first
+        Map<String, List<String>> spellings = new LinkedHashMap<>();
+        for (String title : titles) {
+            if (title == null) {
+                continue;
+            }
+            String normalized = String.join(" ", tokenize(title));
+            if (!normalized.isEmpty()) {
+                spellings.computeIfAbsent(normalized, key -> new ArrayList<>()).add(title.trim());
+            }
+        }
+        if (spellings.isEmpty()) {
+            return Optional.empty();
+        }
+        if (spellings.size() == 1) {
+            return Optional.of(preferredSpelling(spellings.values().iterator().next()));
+        }
+        if (requireClearWinner && titles.size() > maxTitles) {
+            return Optional.empty();
+        }
+
+        // votes per n-gram: how many titles contain it
+        Map<String, Set<String>> gramsByTitle = new HashMap<>();
+        Map<String, Integer> votes = new HashMap<>();
+        for (var entry : spellings.entrySet()) {
+            Set<String> grams = contentGrams(entry.getKey());
+            gramsByTitle.put(entry.getKey(), grams);
+            for (String gram : grams) {
+                votes.merge(gram, entry.getValue().size(), Integer::sum);
+            }
+        }
+
+        String best = null;
+        double bestScore = -1;
+        double runnerUpScore = -1;
+        for (var entry : spellings.entrySet()) {
+            String normalized = entry.getKey();
+            double score = 0;
+            for (String gram : gramsByTitle.get(normalized)) {
+                int n = gram.split(" ").length;
+                // the title's own copies confirm it too, beyond the first
+                score += n * (votes.get(gram) - 1);
+            }
+            score /= Math.sqrt(Math.max(1, normalized.split(" ").length));
+            if (score > bestScore || (score == bestScore && best != null)) {
+                // ties go to the more recent title
+                runnerUpScore = Math.max(runnerUpScore, bestScore);
+                bestScore = score;
+                best = normalized;
+            } else if (score > runnerUpScore) {
+                runnerUpScore = score;
+            }
+        }
+
+        if (requireClearWinner && (bestScore <= 0 || runnerUpScore > bestScore * (1 - minMargin))) {
+            return Optional.empty();
+        }
+        return Optional.of(preferredSpelling(spellings.get(best)));
+    }
+
+    // The most common spelling of a title, the latest one on a tie.
+    private static String preferredSpelling(List<String> spellings) {
+        Map<String, Integer> counts = new HashMap<>();
+        String preferred = null;
+        int preferredCount = 0;
+        for (String spelling : spellings) {
+            int count = counts.merge(spelling, 1, Integer::sum);
+            if (count >= preferredCount) {
+                preferred = spelling;
+                preferredCount = count;
+            }
+        }
+        return preferred;
+    }
+
+    private static Set<String> contentGrams(String normalized) {
+        String[] tokens = normalized.split(" ");
+        Set<String> grams = new HashSet<>();
+        for (int n = 1; n <= MAX_N; n++) {
+            for (int i = 0; i + n <= tokens.length; i++) {
+                boolean content = false;
+                StringBuilder gram = new StringBuilder();
+                for (int j = i; j < i + n; j++) {
+                    if (j > i) {
+                        gram.append(' ');
+                    }
+                    gram.append(tokens[j]);
+                    content |= !STOP_WORDS.contains(tokens[j]);
+                }
+                if (content) {
+                    grams.add(gram.toString());
+                }
+            }
+        }
+        return grams;
+    }
+
+    // Lowercase words without punctuation, so "The Snowman!" and "the snowman" are the same title.
+    private static List<String> tokenize(String title) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < title.length(); i++) {
+            char c = title.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (c != '\'' && token.length() > 0) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (token.length() > 0) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+}
@@ -9,15 +9,14 @@ import java.util.Optional;
 import java.util.Random;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.CrossOrigin;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.shelfshare.entity.BookStatus;
-import com.example.shelfshare.entity.Books;
 import com.example.shelfshare.entity.BorrowRequestStatus;
 import com.example.shelfshare.entity.BorrowRequests;
 import com.example.shelfshare.entity.Users;
@@ -28,7 +27,6 @@ import com.example.shelfshare.model.UserDetailsChangeRequest;
 import com.example.shelfshare.repository.BooksRepository;
 import com.example.shelfshare.repository.BorrowRequestRepository;
 import com.example.shelfshare.repository.UserRepository;
-import com.fasterxml.jackson.databind.JsonNode;
 
 @Service
 @CrossOrigin(origins = "http://localhost:5173")
@@ -39,8 +37,7 @@ public class UserService {
 
     private PasswordEncoder encoder;
 
-    @Autowired
-    private final RestTemplate restTemplate;
+    private final PincodeResolver pincodeResolver;
 
     @Autowired
     private BorrowRequestRepository borrowRequestRepository;
@@ -51,11 +48,15 @@ public class UserService {
     @Autowired
     private EmailService emailService;
 
-    public UserService(RestTemplate restTemplate) {
+    @Autowired
+    private BookFilterIndexService bookFilterIndexService;
+
+    public UserService(PincodeResolver pincodeResolver) {
         this.encoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
-        this.restTemplate = restTemplate;
+        this.pincodeResolver = pincodeResolver;
     }
 
+    @Transactional
     public Optional<Users> createUser(String name, String username, String password, String email, String pincode, String area, String city, String state, String country, Map<String, String> securityQuestionAnswers) {
         if (userRepository.findByUsername(username).isPresent()) {
             return Optional.empty();
@@ -131,6 +132,7 @@ public class UserService {
             user.setCountry(request.country());
         }
         userRepository.save(user);
+        bookFilterIndexService.refreshBooksOfOwnerAfterCommit(user.getUserId());
         return true;
     }
 
@@ -140,45 +142,7 @@ public class UserService {
     }
 
     public UserAddressResponse getAddressByPincode(String pincode) {
-        if (pincode == null || pincode.isEmpty()) {
-            return new UserAddressResponse(Collections.emptyList(), null, null, null, "Pincode cannot be null or empty");
-        }
-
-        String url = "http://www.postalpincode.in/api/pincode/" + pincode;
-
-        try {
-            JsonNode response = restTemplate.getForObject(url, JsonNode.class);
-
-            if (response == null || "Error".equalsIgnoreCase(response.path("Status").asText())) {
-                return new UserAddressResponse(Collections.emptyList(), null, null, null, "No response from the API");
-            }
-
-            String status = response.path("Status").asText();
-            String message = response.path("Message").asText();
-
-            if ("Success".equalsIgnoreCase(status)) {
-                JsonNode postOfficeArray = response.path("PostOffice");
-
-                if (postOfficeArray.isArray() && !postOfficeArray.isEmpty()) {
-                    JsonNode firstPostOffice = postOfficeArray.get(0);
-                    String city = firstPostOffice.path("District").asText();
-                    String state = firstPostOffice.path("State").asText();
-                    String country = firstPostOffice.path("Country").asText();
-
-                    List<String> allAreaNames = new ArrayList<>();
-                    for (JsonNode postOffice : postOfficeArray) {
-                        allAreaNames.add(postOffice.path("Name").asText());
-                    }
-
-                    return new UserAddressResponse(allAreaNames, city, state, country, message);
-                }
-            }
-
-            return new UserAddressResponse(Collections.emptyList(), null, null, null, message);
-
-        } catch (Exception e) {
-            return new UserAddressResponse(Collections.emptyList(), null, null, null, "An internal error occurred while processing the request.");
-        }
+        return pincodeResolver.resolve(pincode);
     }
 
     public List<BorrowRequestsSentResponse> getBorrowRequestsSent(Users user) {
@@ -268,28 +232,16 @@ public class UserService {
         return false; // Not the requester or request is not pending
     }
 
-    // Update the borrow request status
-    borrowRequest.setStatus(BorrowRequestStatus.CANCELLED);
-    //borrowRequest.setCancellationDate(Instant.now()); // Set the cancellation timestamp
-    borrowRequestRepository.save(borrowRequest);
+    Integer bookId = borrowRequest.getBook().getBookId();
 
-    // Remove the request from the requester's sent requests
-    currentUser.getBorrowRequestsSent().remove(borrowRequestId);
-    userRepository.save(currentUser);
-
-    // Remove the request from the owner's received requests 
-    var owner = borrowRequest.getOwner();
-    owner = userRepository.findById(owner.getUserId()).orElse(owner);
-    owner.getBorrowRequestsReceived().remove(borrowRequestId);
-    userRepository.save(owner);
+    // Update the borrow request status, unless the owner approved or rejected it meanwhile
+    if (borrowRequestRepository.transitionStatus(borrowRequestId, BorrowRequestStatus.PENDING, BorrowRequestStatus.CANCELLED) == 0) {
+        throw new OptimisticLockingFailureException("Borrow request " + borrowRequestId + " is no longer pending");
+    }
 
     // Revert book status if it was set to REQUESTED
-    Books book = borrowRequest.getBook();
-    book = booksRepository.findById(book.getBookId()).orElse(book);
-    if (book.getBookStatus() == BookStatus.REQUESTED) {
-        book.setBookStatus(BookStatus.AVAILABLE);
-        book.setEnlisted(true); // Re-enlist the book
-        booksRepository.save(book);
+    if (booksRepository.transitionStatus(bookId, BookStatus.REQUESTED, BookStatus.AVAILABLE, true) > 0) {
+        bookFilterIndexService.refreshBookAfterCommit(bookId);
     }
 
     //****to be done: Optional: Send an email notification to the owner
@@ -0,0 +1,206 @@
+package com.example.shelfshare.tools;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.example.shelfshare.service.PincodeDirectory;
+
+// Builds the offline pincode directory read by PincodeDirectory from a CSV with a header row,
+// such as India Post's "All India Pincode Directory" export. Required columns: Pincode,
+// OfficeName, District and StateName; Country is optional and defaults to India. Rows sharing a
+// pincode become its areas, in file order; district and state come from its first row.
+//
+//   ./gradlew buildPincodeDirectory -Pcsv=pincodes.csv -Pout=pincodes.bin
+public class PincodeDirectoryBuilder {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: PincodeDirectoryBuilder <input.csv> <output.bin>");
+            System.exit(2);
+        }
+        Map<Integer, Entry> entries = read(Path.of(args[0]));
+        write(entries, Path.of(args[1]));
+        System.out.println("Wrote " + entries.size() + " pincodes to " + args[1]);
+    }
+
+    private static Map<Integer, Entry> read(Path csv) throws IOException {
+        Map<Integer, Entry> entries = new TreeMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                throw new IOException(csv + " is empty");
+            }
+            List<String> header = parseLine(headerLine.replace("\uFEFF", ""));
+            int pincodeColumn = column(header, "pincode", true);
+            int officeColumn = column(header, "officename", true);
+            int districtColumn = column(header, "district", true);
+            int stateColumn = column(header, "statename", true);
+            int countryColumn = column(header, "country", false);
+
+            String line;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> fields = parseLine(line);
+                int pincode;
+                try {
+                    pincode = Integer.parseInt(fields.get(pincodeColumn).trim());
+                } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                    System.err.println("Skipping line " + lineNumber + ": no valid pincode");
+                    continue;
+                }
+                Entry entry = entries.get(pincode);
+                if (entry == null) {
+                    String country = countryColumn >= 0 && countryColumn < fields.size() && !fields.get(countryColumn).isBlank()
+                        ? fields.get(countryColumn).trim() : "India";
+                    entry = new Entry(field(fields, districtColumn), field(fields, stateColumn), country);
+                    entries.put(pincode, entry);
+                }
+                String office = field(fields, officeColumn);
+                if (!office.isEmpty()) {
+                    entry.areas.add(office);
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static void write(Map<Integer, Entry> entries, Path output) throws IOException {
+        StringTable strings = new StringTable();
+        ByteArrayOutputStream entryBytes = new ByteArrayOutputStream(entries.size() * PincodeDirectory.ENTRY_SIZE);
+        DataOutputStream entryTable = new DataOutputStream(entryBytes);
+        for (var pincode : entries.entrySet()) {
+            Entry entry = pincode.getValue();
+            entryTable.writeInt(pincode.getKey());
+            entryTable.writeInt(strings.intern(entry.district));
+            entryTable.writeInt(strings.intern(entry.state));
+            entryTable.writeInt(strings.intern(entry.country));
+            // areas are appended back to back so the reader can walk them from the first one
+            int firstArea = strings.size();
+            for (String area : entry.areas) {
+                strings.append(area);
+            }
+            entryTable.writeInt(firstArea);
+            entryTable.writeInt(entry.areas.size());
+        }
+        entryTable.flush();
+
+        try (OutputStream file = Files.newOutputStream(output);
+             DataOutputStream out = new DataOutputStream(file)) {
+            out.writeInt(PincodeDirectory.MAGIC);
+            out.writeInt(entries.size());
+            out.writeInt(PincodeDirectory.HEADER_SIZE + entryBytes.size());
+            entryBytes.writeTo(out);
+            strings.writeTo(out);
+        }
+    }
+
+    private static int column(List<String> header, String name, boolean required) throws IOException {
+        for (int i = 0; i < header.size(); i++) {
+            if (header.get(i).trim().toLowerCase(Locale.ROOT).replace(" ", "").equals(name)) {
+                return i;
+            }
+        }
+        if (required) {
+            throw new IOException("CSV header has no " + name + " column: " + header);
+        }
+        return -1;
+    }
+
+    private static String field(List<String> fields, int column) {
+        return column < fields.size() ? fields.get(column).trim() : "";
+    }
+
+    // RFC 4180 fields: commas inside double quotes, "" for a literal quote.
+    private static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static final class Entry {
+        private final String district;
+        private final String state;
+        private final String country;
+        private final LinkedHashSet<String> areas = new LinkedHashSet<>();
+
+        Entry(String district, String state, String country) {
+            this.district = district;
+            this.state = state;
+            this.country = country;
+        }
+    }
+
+    // u16 length + UTF-8 bytes per string; district, state and country names are stored once.
+    private static final class StringTable {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final Map<String, Integer> interned = new HashMap<>();
+
+        int intern(String value) throws IOException {
+            Integer ref = interned.get(value);
+            if (ref == null) {
+                ref = append(value);
+                interned.put(value, ref);
+            }
+            return ref;
+        }
+
+        int append(String value) throws IOException {
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            if (encoded.length > 0xffff) {
+                throw new IOException("String too long for the directory: " + value.substring(0, 40) + "...");
+            }
+            int ref = bytes.size();
+            bytes.write(encoded.length >>> 8);
+            bytes.write(encoded.length);
+            bytes.write(encoded);
+            return ref;
+        }
+
+        int size() {
+            return bytes.size();
+        }
+
+        void writeTo(OutputStream out) throws IOException {
+            bytes.writeTo(out);
+        }
+    }
+}
@@ -0,0 +1,3 @@
+-- @Version columns for the compare-and-set borrow transitions.
+alter table books add column version bigint not null default 0;
+alter table borrow_requests add column version bigint not null default 0;
@@ -0,0 +1,24 @@
+-- Sent and received borrow requests are read from borrow_requests (see idx_borrow_requests_owner_date
+-- and idx_borrow_requests_requester); the per-user copies were only ever written.
+drop table user_sent_requests;
+drop table user_received_requests;
+
+-- user_owned_books becomes a set keyed by (user_id, book_id), so Hibernate inserts and deletes
+-- single rows instead of rewriting a user's whole list. Duplicates and null ids are dropped.
+create table user_owned_books_set (
+    user_id integer not null,
+    book_id integer not null,
+    primary key (user_id, book_id)
+) engine=InnoDB;
+
+insert into user_owned_books_set (user_id, book_id)
+    select distinct user_id, book_id from user_owned_books where book_id is not null;
+
+drop table user_owned_books;
+
+alter table user_owned_books_set rename to user_owned_books;
+
+alter table user_owned_books
+   add constraint fk_user_owned_books_user
+   foreign key (user_id)
+   references users (user_id);
@@ -0,0 +1,36 @@
+-- Append-only ownership ledger replacing book_previous_owners, which Hibernate rewrote in full on
+-- every approval and archive.
+create table ownership_transfers (
+    transfer_id bigint not null auto_increment,
+    book_id integer not null,
+    from_user_id integer not null,
+    to_user_id integer,
+    borrow_request_id integer,
+    transferred_at datetime(6) not null,
+    primary key (transfer_id)
+) engine=InnoDB;
+
+create index idx_ownership_transfers_book
+   on ownership_transfers (book_id, transfer_id);
+
+alter table ownership_transfers
+   add constraint fk_ownership_transfers_book
+   foreign key (book_id)
+   references books (book_id);
+
+alter table ownership_transfers
+   add constraint fk_ownership_transfers_from_user
+   foreign key (from_user_id)
+   references users (user_id);
+
+alter table ownership_transfers
+   add constraint fk_ownership_transfers_to_user
+   foreign key (to_user_id)
+   references users (user_id);
+
+-- The old list kept neither order nor time nor the next owner; existing entries come across in
+-- table order, stamped with the migration time and without a recipient.
+insert into ownership_transfers (book_id, from_user_id, transferred_at)
+    select book_id, previous_owners_user_id, current_timestamp(6) from book_previous_owners;
+
+drop table book_previous_owners;
@@ -0,0 +1,3 @@
+-- expiry sweep walks PENDING requests in id order, one chunk at a time
+create index idx_borrow_requests_status_id
+   on borrow_requests (status, borrow_request_id);
@@ -0,0 +1,11 @@
+-- Retention for model_result_cache_entry: rows record the model version they were computed with,
+-- and ModelResultCache.purgeStale deletes rows from other versions or older than the ttl.
+-- Rows written before this column existed stay null and count as stale.
+alter table model_result_cache_entry
+   add column model_version varchar(32);
+
+create index idx_model_result_cache_entry_version
+   on model_result_cache_entry (model_version);
+
+create index idx_model_result_cache_entry_created
+   on model_result_cache_entry (created_at);
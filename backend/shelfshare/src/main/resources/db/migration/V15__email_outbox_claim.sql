@@ -0,0 +1,7 @@
+-- Dispatchers claim due outbox rows before sending them: the claim writes a per-batch token and
+-- moves next_attempt_at to the end of a lease, so no other instance sees the rows as due meanwhile.
+alter table email_outbox
+   add column claim_token varchar(36);
+
+create index idx_email_outbox_claim_token
+   on email_outbox (claim_token);
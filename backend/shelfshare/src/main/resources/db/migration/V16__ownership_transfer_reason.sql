@@ -0,0 +1,24 @@
+-- Records why each ownership_transfers row was written, so an archive is an ARCHIVED row rather than
+-- one that merely lacks a recipient. Existing rows are classified from what they carry: a borrow
+-- request means an approval; the latest row of an archived book without one is its archive; the
+-- rest came from book_previous_owners.
+alter table ownership_transfers
+   add column reason varchar(32);
+
+update ownership_transfers
+   set reason = 'BORROW_APPROVED'
+ where borrow_request_id is not null;
+
+update ownership_transfers
+   set reason = 'ARCHIVED'
+ where reason is null
+   and book_id in (select book_id from books where book_status = 'ARCHIVED')
+   and transfer_id in (select latest.transfer_id
+                         from (select max(transfer_id) as transfer_id from ownership_transfers group by book_id) latest);
+
+update ownership_transfers
+   set reason = 'IMPORTED'
+ where reason is null;
+
+alter table ownership_transfers
+   modify column reason varchar(32) not null;
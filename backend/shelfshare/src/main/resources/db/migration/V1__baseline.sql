@@ -0,0 +1,183 @@
+-- Baseline: exactly the schema Hibernate's ddl-auto=update produced for the entities before
+-- Flyway was introduced; everything added since lives in the later migrations.
+-- Databases that already exist are baselined at this version (spring.flyway.baseline-on-migrate)
+-- and only receive the migrations after it.
+
+create table book_notes (
+    book_id integer not null,
+    note_id integer
+) engine=InnoDB;
+
+create table book_previous_owners (
+    book_id integer not null,
+    previous_owners_user_id integer not null
+) engine=InnoDB;
+
+create table books (
+    book_id integer not null auto_increment,
+    current_owner_user_id integer not null,
+    enlisted bit,
+    publication_year integer not null,
+    author_name varchar(255) not null,
+    book_title varchar(255) not null,
+    master_custom_title varchar(255),
+    summarized_note_content TEXT,
+    book_genre VARCHAR(255) not null,
+    book_status VARCHAR(255) not null,
+    primary key (book_id)
+) engine=InnoDB;
+
+create table borrow_requests (
+    book_id integer not null,
+    borrow_request_id integer not null auto_increment,
+    owner_id integer not null,
+    requester_id integer not null,
+    request_date datetime(6) not null,
+    status enum ('ACCEPTED','CANCELLED','PENDING','REJECTED') not null,
+    primary key (borrow_request_id)
+) engine=InnoDB;
+
+create table notes (
+    book_id integer not null,
+    note_id integer not null auto_increment,
+    user_id integer not null,
+    timestamp datetime(6) not null,
+    customized_title varchar(255),
+    note_content TEXT not null,
+    primary key (note_id)
+) engine=InnoDB;
+
+create table reviews (
+    book_id integer not null,
+    id integer not null auto_increment,
+    ratings integer not null,
+    user_id integer not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table user_enlisted_books (
+    book_id integer not null,
+    ratings integer,
+    user_id integer not null,
+    primary key (book_id, user_id)
+) engine=InnoDB;
+
+create table user_owned_books (
+    book_id integer,
+    user_id integer not null
+) engine=InnoDB;
+
+create table user_received_requests (
+    borrow_request_id integer,
+    user_id integer not null
+) engine=InnoDB;
+
+create table user_security_questions (
+    user_id integer not null,
+    answer_value varchar(255) not null,
+    question_key varchar(255) not null,
+    primary key (user_id, question_key)
+) engine=InnoDB;
+
+create table user_sent_requests (
+    borrow_request_id integer,
+    user_id integer not null
+) engine=InnoDB;
+
+create table users (
+    is_admin bit not null,
+    user_id integer not null auto_increment,
+    area varchar(255),
+    city varchar(255),
+    country varchar(255),
+    name varchar(255),
+    password_digest varchar(255) not null,
+    pincode varchar(255),
+    state varchar(255),
+    user_email varchar(255),
+    username varchar(255) not null,
+    primary key (user_id)
+) engine=InnoDB;
+
+alter table users
+   add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username);
+
+alter table book_notes
+   add constraint FK5jbepl59avy8aadeia0m1t4w1
+   foreign key (book_id)
+   references books (book_id);
+
+alter table book_previous_owners
+   add constraint FK5r7f2hk4fgbcqlrgbr4uhb90d
+   foreign key (previous_owners_user_id)
+   references users (user_id);
+
+alter table book_previous_owners
+   add constraint FKlibomf52a24ydbb6hcjl647ml
+   foreign key (book_id)
+   references books (book_id);
+
+alter table books
+   add constraint FKbcg7lrfw1wvaad7cvsox3f9q0
+   foreign key (current_owner_user_id)
+   references users (user_id);
+
+alter table borrow_requests
+   add constraint FK2pnymq4qt2v6k95k2ah0gxewt
+   foreign key (book_id)
+   references books (book_id);
+
+alter table borrow_requests
+   add constraint FKig7u1lmscv3s5tnqo6ir7she5
+   foreign key (owner_id)
+   references users (user_id);
+
+alter table borrow_requests
+   add constraint FKmdmo2f7oir1wi194x00vun0fl
+   foreign key (requester_id)
+   references users (user_id);
+
+alter table notes
+   add constraint FKcuk3pkb6p8ff9ivd1a3st6wix
+   foreign key (book_id)
+   references books (book_id);
+
+alter table notes
+   add constraint FKechaouoa6kus6k1dpix1u91c
+   foreign key (user_id)
+   references users (user_id);
+
+alter table reviews
+   add constraint FK6a9k6xvev80se5rreqvuqr7f9
+   foreign key (book_id)
+   references books (book_id);
+
+alter table reviews
+   add constraint FKcgy7qjc1r99dp117y9en6lxye
+   foreign key (user_id)
+   references users (user_id);
+
+alter table user_enlisted_books
+   add constraint FKj8iar03b50q7hh51xqmmc5mi0
+   foreign key (user_id)
+   references users (user_id);
+
+alter table user_owned_books
+   add constraint FKs9ba0fivyk1jijts1j7b9edpc
+   foreign key (user_id)
+   references users (user_id);
+
+alter table user_received_requests
+   add constraint FKmt9yiu8lp7dewk2ti6hamb9o5
+   foreign key (user_id)
+   references users (user_id);
+
+alter table user_security_questions
+   add constraint FKlgecli54t32l9r3ljm9r5sebx
+   foreign key (user_id)
+   references users (user_id);
+
+alter table user_sent_requests
+   add constraint FK9qw7udsa871ie6ubvnxvokijp
+   foreign key (user_id)
+   references users (user_id);
@@ -0,0 +1,54 @@
+-- Secondary indexes for the access paths in BooksRepository, BorrowRequestRepository and NotesRepository.
+-- InnoDB only adds single-column indexes for foreign keys; these cover the filter plus the sort column.
+
+-- listings by status, keyset-paged on book_id
+create index idx_books_status_book_id
+   on books (book_status, book_id);
+
+-- my books / enlisted books: owner, then status
+create index idx_books_owner_status
+   on books (current_owner_user_id, book_status, book_id);
+
+create index idx_books_genre_book_id
+   on books (book_genre, book_id);
+
+-- expiry sweep: PENDING requests older than a cutoff
+create index idx_borrow_requests_status_date
+   on borrow_requests (status, request_date);
+
+-- competing requests for one book
+create index idx_borrow_requests_book_status
+   on borrow_requests (book_id, status);
+
+create index idx_borrow_requests_owner_date
+   on borrow_requests (owner_id, request_date);
+
+create index idx_borrow_requests_requester
+   on borrow_requests (requester_id, request_date);
+
+-- latest note per book
+create index idx_notes_book_timestamp
+   on notes (book_id, timestamp, note_id);
+
+-- element collections are read and rewritten by owner key
+create index idx_book_previous_owners_book
+   on book_previous_owners (book_id, previous_owners_user_id);
+
+create index idx_book_notes_book
+   on book_notes (book_id, note_id);
+
+create index idx_user_owned_books_user
+   on user_owned_books (user_id, book_id);
+
+create index idx_user_sent_requests_user
+   on user_sent_requests (user_id, borrow_request_id);
+
+create index idx_user_received_requests_user
+   on user_received_requests (user_id, borrow_request_id);
+
+-- notes by author, reviews by book
+create index idx_notes_user
+   on notes (user_id);
+
+create index idx_reviews_book
+   on reviews (book_id);
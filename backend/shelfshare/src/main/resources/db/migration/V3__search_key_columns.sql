@@ -0,0 +1,26 @@
+-- Normalized search key columns (SearchKeys.normalize) and their indexes; V4 fills them for
+-- existing rows.
+alter table books add column author_name_key varchar(255);
+
+alter table users add column area_key varchar(255);
+alter table users add column city_key varchar(255);
+alter table users add column state_key varchar(255);
+alter table users add column country_key varchar(255);
+
+create index idx_books_author_name_key
+   on books (author_name_key);
+
+create index idx_users_pincode
+   on users (pincode);
+
+create index idx_users_area_key
+   on users (area_key);
+
+create index idx_users_city_key
+   on users (city_key);
+
+create index idx_users_state_key
+   on users (state_key);
+
+create index idx_users_country_key
+   on users (country_key);
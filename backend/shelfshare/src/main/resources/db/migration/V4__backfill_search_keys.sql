@@ -0,0 +1,10 @@
+-- Normalized search key columns for rows written before the entities maintained them.
+update users set
+    area_key = nullif(lower(trim(area)), ''),
+    city_key = nullif(lower(trim(city)), ''),
+    state_key = nullif(lower(trim(state)), ''),
+    country_key = nullif(lower(trim(country)), '')
+where area_key is null and city_key is null and state_key is null and country_key is null;
+
+update books set author_name_key = nullif(lower(trim(author_name)), '')
+where author_name_key is null;
@@ -0,0 +1,18 @@
+-- Transactional outbox for notification emails, drained by EmailOutboxDispatcher.
+create table email_outbox (
+    email_id bigint not null auto_increment,
+    recipient varchar(255) not null,
+    subject varchar(500) not null,
+    body MEDIUMTEXT not null,
+    status VARCHAR(32) not null,
+    attempts integer not null,
+    next_attempt_at datetime(6) not null,
+    created_at datetime(6) not null,
+    sent_at datetime(6),
+    last_error varchar(1000),
+    primary key (email_id)
+) engine=InnoDB;
+
+-- dispatcher poll: due PENDING rows in order
+create index idx_email_outbox_status_next_attempt
+   on email_outbox (status, next_attempt_at, email_id);
@@ -0,0 +1,8 @@
+-- Summarization and master-title results keyed by the SHA-256 of their input (ModelResultCache).
+create table model_result_cache_entry (
+    cache_key varchar(64) not null,
+    kind varchar(32) not null,
+    result MEDIUMTEXT not null,
+    created_at datetime(6) not null,
+    primary key (cache_key)
+) engine=InnoDB;
@@ -0,0 +1,4 @@
+-- Watermark for incremental summarization: the highest note id already folded into summarized_note_content.
+-- Existing rows stay null, so their next summary is rebuilt in full.
+alter table books
+   add column summarized_through_note_id integer;
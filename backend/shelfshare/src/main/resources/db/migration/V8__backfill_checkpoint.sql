@@ -0,0 +1,11 @@
+-- Resumable progress for backfill jobs such as SummaryBackfillService.
+create table backfill_checkpoint (
+    job_name varchar(64) not null,
+    last_book_id integer not null,
+    status VARCHAR(32) not null,
+    processed_books bigint not null,
+    failed_books bigint not null,
+    started_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    primary key (job_name)
+) engine=InnoDB;
@@ -0,0 +1,9 @@
+-- Persistent tier of PincodeResolver: one upstream answer per pincode, including "no such pincode".
+create table pincode_address (
+    pincode varchar(6) not null,
+    found bit not null,
+    response TEXT not null,
+    fetched_at datetime(6) not null,
+    expires_at datetime(6) not null,
+    primary key (pincode)
+) engine=InnoDB;
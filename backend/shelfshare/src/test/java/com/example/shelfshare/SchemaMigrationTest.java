@@ -0,0 +1,82 @@
+package com.example.shelfshare;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+// A database created by ddl-auto=update before Flyway (the schema in V1) is adopted at version 1,
+// receives every later migration, and then passes Hibernate's schema validation.
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SchemaMigrationTest {
+
+    private static final String URL = "jdbc:h2:mem:pre-flyway;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void preFlywayDatabase(DynamicPropertyRegistry registry) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "")) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V1__baseline.sql"));
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("insert into users (user_id, is_admin, username, password_digest, area, city, state, country, pincode) "
+                    + "values (1, false, 'asha', 'x', ' Indiranagar ', 'Bengaluru', 'KARNATAKA', 'India', '560038')");
+                statement.execute("insert into users (user_id, is_admin, username, password_digest, area, city, state, country, pincode) "
+                    + "values (2, false, 'ravi', 'x', '', 'Pune', 'Maharashtra', 'India', '411001')");
+                statement.execute("insert into books (book_id, current_owner_user_id, enlisted, publication_year, author_name, book_title, book_genre, book_status) "
+                    + "values (10, 2, true, 1965, ' Frank Herbert', 'Dune', 'FICTION', 'AVAILABLE')");
+                statement.execute("insert into book_previous_owners (book_id, previous_owners_user_id) values (10, 1)");
+                statement.execute("insert into user_owned_books (user_id, book_id) values (2, 10), (2, 10), (2, null)");
+                statement.execute("insert into borrow_requests (borrow_request_id, book_id, owner_id, requester_id, request_date, status) "
+                    + "values (100, 10, 2, 1, current_timestamp(6), 'PENDING')");
+                statement.execute("insert into user_sent_requests (user_id, borrow_request_id) values (1, 100)");
+                statement.execute("insert into user_received_requests (user_id, borrow_request_id) values (2, 100)");
+            }
+        }
+        registry.add("spring.datasource.url", () -> URL);
+    }
+
+    @Test
+    void adoptsBaselineDatabaseAndAppliesEveryLaterMigration() throws IOException {
+        int migrations = new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/V*__*.sql").length;
+        List<Map<String, Object>> history = jdbcTemplate.queryForList(
+            "select version, success from flyway_schema_history where version is not null order by installed_rank");
+        assertEquals("1", history.get(0).get("version"));
+        assertEquals(migrations, history.size());
+        assertTrue(history.stream().allMatch(row -> Boolean.TRUE.equals(row.get("success"))));
+
+        assertEquals(List.of("indiranagar", "bengaluru", "karnataka", "india"), jdbcTemplate.queryForList(
+            "select area_key, city_key, state_key, country_key from users where user_id = 1").get(0).values().stream().toList());
+        assertEquals(null, jdbcTemplate.queryForObject("select area_key from users where user_id = 2", String.class));
+        assertEquals("frank herbert", jdbcTemplate.queryForObject("select author_name_key from books where book_id = 10", String.class));
+
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from user_owned_books where user_id = 2", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+            "select from_user_id from ownership_transfers where book_id = 10", Integer.class));
+        assertEquals("IMPORTED", jdbcTemplate.queryForObject(
+            "select reason from ownership_transfers where book_id = 10", String.class));
+        assertEquals(0L, jdbcTemplate.queryForObject(
+            "select version from borrow_requests where borrow_request_id = 100", Long.class));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.shelfshare.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+class SearchKeysTest {
+
+    @Test
+    void foldsCaseAndSurroundingWhitespace() {
+        assertEquals("bengaluru", SearchKeys.normalize("Bengaluru"));
+        assertEquals("bengaluru", SearchKeys.normalize("  BENGALURU\t"));
+        assertEquals("fort kochi", SearchKeys.normalize(" Fort Kochi "));
+    }
+
+    @Test
+    void keepsInnerTextAsWritten() {
+        assertEquals("r. k.  narayan", SearchKeys.normalize("R. K.  Narayan"));
+        assertEquals("560038", SearchKeys.normalize("560038"));
+    }
+
+    @Test
+    void blankValuesHaveNoKey() {
+        assertNull(SearchKeys.normalize(null));
+        assertNull(SearchKeys.normalize(""));
+        assertNull(SearchKeys.normalize("   "));
+    }
+
+    @Test
+    void ignoresTheDefaultLocale() {
+        // in a Turkish locale "I".toLowerCase() is a dotless i, which would miss the stored key
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            assertEquals("indiranagar", SearchKeys.normalize("INDIRANAGAR"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.shelfshare.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.shelfshare.repository.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// bookOwned is a set, so adding or removing one book writes one user_owned_books row. As a bag it
+// was deleted and re-inserted in full on every change, one statement per book the user owns.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UsersOwnedBooksTest {
+
+    private static final int OWNED = 2000;
+
+    // load the user, load the collection, write the one changed row
+    private static final int STATEMENTS_PER_CHANGE = 3;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Integer userId;
+
+    @BeforeEach
+    void seedOwnedBooks() {
+        userId = userRepository.save(new Users("Asha", "asha" + System.nanoTime(), "digest", "asha@example.com",
+            "560038", "Indiranagar", "Bengaluru", "Karnataka", "India", false)).getUserId();
+        List<Object[]> rows = new ArrayList<>();
+        for (int bookId = 1; bookId <= OWNED; bookId++) {
+            rows.add(new Object[] {userId, bookId});
+        }
+        jdbcTemplate.batchUpdate("insert into user_owned_books (user_id, book_id) values (?, ?)", rows);
+    }
+
+    @Test
+    void addingABookWritesOneRow() {
+        Statistics statistics = statistics();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Users user = userRepository.findById(userId).orElseThrow();
+            assertTrue(user.getBookOwned().add(OWNED + 1));
+            assertFalse(user.getBookOwned().add(1));
+        });
+
+        assertEquals(STATEMENTS_PER_CHANGE, statistics.getPrepareStatementCount());
+        assertEquals(OWNED + 1, ownedRows());
+    }
+
+    @Test
+    void removingABookDeletesOneRow() {
+        Statistics statistics = statistics();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Users user = userRepository.findById(userId).orElseThrow();
+            assertTrue(user.getBookOwned().remove(Integer.valueOf(7)));
+        });
+
+        assertEquals(STATEMENTS_PER_CHANGE, statistics.getPrepareStatementCount());
+        assertEquals(OWNED - 1, ownedRows());
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "select count(*) from user_owned_books where user_id = ? and book_id = 7", Integer.class, userId));
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private int ownedRows() {
+        return jdbcTemplate.queryForObject("select count(*) from user_owned_books where user_id = ?", Integer.class, userId);
+    }
+}
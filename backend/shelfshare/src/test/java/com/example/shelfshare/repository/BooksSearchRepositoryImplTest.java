@@ -0,0 +1,149 @@
+package com.example.shelfshare.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.shelfshare.entity.BookGenre;
+import com.example.shelfshare.entity.BookStatus;
+import com.example.shelfshare.entity.Books;
+import com.example.shelfshare.entity.SearchKeys;
+import com.example.shelfshare.entity.Users;
+import com.example.shelfshare.model.BookSearchCriteria;
+
+// The benchmark compares the plan and latency of the city filter as it used to compile,
+// upper(city) = upper(?), with the key-column filter, on a generated user base; it only runs when
+// SHELFSHARE_BENCHMARK_USERS is set to the number of owners.
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class BooksSearchRepositoryImplTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BooksSearchRepositoryImplTest.class);
+
+    @Autowired
+    private BooksRepository booksRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void textFiltersIgnoreCaseAndPadding() {
+        Users owner = userRepository.save(new Users("Asha", "asha", "digest", "asha@example.com", "560038",
+            " Indiranagar", "BENGALURU", "Karnataka ", "India", false));
+        Books book = booksRepository.save(new Books(null, "Dune", "  Frank HERBERT", BookGenre.FICTION, 1965,
+            owner, BookStatus.AVAILABLE, true, new ArrayList<>()));
+        List<Integer> expected = List.of(book.getBookId());
+
+        assertEquals(expected, booksRepository.searchBookIds(BookSearchCriteria.byOwnerArea("indiranagar"), null, null));
+        assertEquals(expected, booksRepository.searchBookIds(BookSearchCriteria.byOwnerCity("Bengaluru"), null, null));
+        assertEquals(expected, booksRepository.searchBookIds(BookSearchCriteria.byOwnerState(" KARNATAKA"), null, null));
+        assertEquals(expected, booksRepository.searchBookIds(BookSearchCriteria.byOwnerCountry("india"), null, null));
+        assertEquals(expected, booksRepository.searchBookIds(BookSearchCriteria.byAuthorName("frank herbert"), null, null));
+        assertEquals(expected, booksRepository.searchBookIds(BookSearchCriteria.byOwnerPincode("560038"), null, null));
+        assertEquals(List.of(), booksRepository.searchBookIds(BookSearchCriteria.byOwnerCity("Pune"), null, null));
+    }
+
+    @Test
+    void keysFollowUpdates() {
+        Users owner = userRepository.save(new Users("Ravi", "ravi", "digest", "ravi@example.com", "411038",
+            "Kothrud", "Pune", "Maharashtra", "India", false));
+        Books book = booksRepository.save(new Books(null, "Swami and Friends", "R. K. Narayan", BookGenre.FICTION, 1935,
+            owner, BookStatus.AVAILABLE, true, new ArrayList<>()));
+
+        owner.setCity("Mumbai ");
+        userRepository.save(owner);
+        book.setAuthorName("RK Narayan");
+        booksRepository.save(book);
+
+        assertEquals(List.of(book.getBookId()), booksRepository.searchBookIds(BookSearchCriteria.byOwnerCity("mumbai"), null, null));
+        assertEquals(List.of(), booksRepository.searchBookIds(BookSearchCriteria.byOwnerCity("pune"), null, null));
+        assertEquals(List.of(book.getBookId()), booksRepository.searchBookIds(BookSearchCriteria.byAuthorName("rk narayan"), null, null));
+    }
+
+    // The filters compare plain columns, so the planner can use the key indexes instead of scanning
+    // and applying lower(trim(...)) to every row.
+    @Test
+    void keyFiltersUseTheirIndexes() {
+        assertTrue(plan("select b.book_id from books b join users u on u.user_id = b.current_owner_user_id where u.city_key = 'pune'")
+            .contains("idx_users_city_key"));
+        assertTrue(plan("select b.book_id from books b where b.author_name_key = 'frank herbert'")
+            .contains("idx_books_author_name_key"));
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "SHELFSHARE_BENCHMARK_USERS", matches = "[0-9]+")
+    void benchmarkKeyColumnAgainstUpperFunction() {
+        int users = Integer.parseInt(System.getenv("SHELFSHARE_BENCHMARK_USERS"));
+        Random random = new Random(6);
+        List<String> cities = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            cities.add((i % 2 == 0 ? "City " : "CITY ") + i);
+        }
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            String city = cities.get(random.nextInt(cities.size()));
+            rows.add(new Object[] {"owner" + i, city, SearchKeys.normalize(city)});
+            if (rows.size() == 5000 || i == users - 1) {
+                jdbcTemplate.batchUpdate("insert into users (username, password_digest, is_admin, city, city_key) "
+                    + "values (?, 'digest', false, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        jdbcTemplate.update("insert into books (current_owner_user_id, book_title, author_name, book_genre, book_status, "
+            + "publication_year, enlisted, version) select user_id, 'Book', 'Author', 'FICTION', 'AVAILABLE', 2000, true, 0 from users");
+        jdbcTemplate.execute("analyze");
+
+        String upperQuery = "select b.book_id from books b join users u on u.user_id = b.current_owner_user_id "
+            + "where upper(u.city) = upper(?)";
+        String keyQuery = "select b.book_id from books b join users u on u.user_id = b.current_owner_user_id where u.city_key = ?";
+        String upperPlan = plan(upperQuery.replace("?", "'city 7'"));
+        String keyPlan = plan(keyQuery.replace("?", "'city 7'"));
+        logger.info("upper(city) plan: {}", upperPlan);
+        logger.info("city_key plan: {}", keyPlan);
+        assertTrue(upperPlan.contains("users.tablescan"), upperPlan);
+        assertTrue(keyPlan.contains("idx_users_city_key"), keyPlan);
+
+        List<String> lookups = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            lookups.add(cities.get(random.nextInt(cities.size())).toLowerCase(Locale.ROOT));
+        }
+        logger.info("{} owners, city filter p50: upper(city) {} us, city_key {} us", users,
+            medianMicros(upperQuery, lookups), medianMicros(keyQuery, lookups));
+    }
+
+    private long medianMicros(String query, List<String> values) {
+        long[] micros = new long[values.size()];
+        for (int round = 0; round < 2; round++) { // the first round only warms up
+            for (int i = 0; i < values.size(); i++) {
+                long started = System.nanoTime();
+                jdbcTemplate.queryForList(query, Integer.class, values.get(i));
+                micros[i] = (System.nanoTime() - started) / 1000;
+            }
+        }
+        Arrays.sort(micros);
+        return micros[micros.length / 2];
+    }
+
+    private String plan(String query) {
+        return jdbcTemplate.queryForObject("explain " + query, String.class).toLowerCase();
+    }
+}
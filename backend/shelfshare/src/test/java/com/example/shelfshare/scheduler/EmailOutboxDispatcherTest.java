@@ -0,0 +1,93 @@
+package com.example.shelfshare.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.shelfshare.entity.EmailOutbox;
+import com.example.shelfshare.entity.EmailOutboxStatus;
+import com.example.shelfshare.repository.EmailOutboxRepository;
+import com.example.shelfshare.service.EmailService;
+import com.example.shelfshare.service.MailDeliveryService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+
+// Two dispatchers, standing in for two application instances, drain one outbox at the same time.
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmailOutboxDispatcherTest {
+
+    private static final int EMAILS = 300;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Test
+    void concurrentDispatchersSendEachEmailOnce() throws Exception {
+        List<EmailOutbox> emails = new ArrayList<>();
+        for (int i = 0; i < EMAILS; i++) {
+            emails.add(new EmailOutbox("reader" + i + "@example.com", "Subject " + i, "<p>Body</p>"));
+        }
+        emailOutboxRepository.saveAll(emails);
+
+        Map<Long, AtomicInteger> sends = new ConcurrentHashMap<>();
+        EmailService emailService = mock(EmailService.class);
+        when(emailService.createMessage(any())).thenAnswer(invocation -> {
+            EmailOutbox email = invocation.getArgument(0);
+            sends.computeIfAbsent(email.getEmailId(), id -> new AtomicInteger()).incrementAndGet();
+            return mock(MimeMessage.class);
+        });
+        MailDeliveryService mailDeliveryService = mock(MailDeliveryService.class);
+        when(mailDeliveryService.sendAll(anyList())).thenAnswer(invocation -> {
+            List<MimeMessage> messages = invocation.getArgument(0);
+            Thread.sleep(5);
+            return new ArrayList<Exception>(Collections.nCopies(messages.size(), null));
+        });
+
+        ExecutorService instances = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> runs = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            EmailOutboxDispatcher dispatcher = new EmailOutboxDispatcher(emailOutboxRepository, emailService,
+                mailDeliveryService, new SimpleMeterRegistry(), 10, 8, 30000, 3600000, 300000);
+            runs.add(instances.submit(() -> {
+                start.await();
+                dispatcher.dispatchDueEmails();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> run : runs) {
+            run.get();
+        }
+        instances.shutdown();
+
+        assertEquals(EMAILS, sends.size());
+        assertEquals(0, sends.values().stream().filter(count -> count.get() != 1).count());
+        assertEquals(EMAILS, emailOutboxRepository.countByStatus(EmailOutboxStatus.SENT));
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.shelfshare.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.shelfshare.entity.BookGenre;
+import com.example.shelfshare.entity.BookStatus;
+import com.example.shelfshare.entity.SearchKeys;
+import com.example.shelfshare.entity.Users;
+import com.example.shelfshare.model.BookSearchCriteria;
+import com.example.shelfshare.repository.BooksRepository;
+import com.example.shelfshare.repository.UserRepository;
+
+// The bitmap index must answer exactly what BooksSearchRepositoryImpl answers in SQL for the same
+// criteria and page. The benchmark compares the two paths on a large generated catalog; it only
+// runs when SHELFSHARE_BENCHMARK_BOOKS is set to the catalog size. H2 keeps that catalog on the
+// test heap, so beyond a few hundred thousand books it needs more than Gradle's default 512 MB.
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(BookFilterIndexService.class)
+class BookFilterIndexServiceTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookFilterIndexServiceTest.class);
+
+    private static final String[] STATES = {"Karnataka", " karnataka", "KERALA", "Kerala ", "Maharashtra"};
+    private static final String[] COUNTRIES = {"India", "INDIA", "Nepal"};
+    private static final String[] AREAS = {"Indiranagar", "indiranagar", "Kothrud", "Fort Kochi", "Baner"};
+    private static final String[] CITIES = {"Bengaluru", "bengaluru ", "Pune", "Kochi", "Mumbai"};
+    private static final String[] PINCODES = {"560038", "411038", "682001", "400001"};
+    private static final String[] AUTHORS = {"Frank Herbert", "frank herbert", "Ursula K. Le Guin", " R. K. Narayan", "Amitav Ghosh"};
+
+    @Autowired
+    private BookFilterIndexService bookFilterIndexService;
+
+    @Autowired
+    private BooksRepository booksRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void indexAnswersTheSameAsSql() {
+        Random random = new Random(42);
+        seedCatalog(random, 40, 3000);
+        bookFilterIndexService.rebuild();
+
+        for (int i = 0; i < 400; i++) {
+            BookSearchCriteria criteria = randomCriteria(random);
+            assertSameAnswer(criteria, null, null);
+            assertSameAnswer(criteria, random.nextInt(3000), 1 + random.nextInt(25));
+        }
+        assertSameAnswer(new BookSearchCriteria(null, null, null, null, null, null, null, null), 100, 20);
+        assertSameAnswer(BookSearchCriteria.byOwnerState("Atlantis"), null, null);
+    }
+
+    @Test
+    void indexFollowsCommittedChanges() {
+        Random random = new Random(7);
+        seedCatalog(random, 5, 50);
+        bookFilterIndexService.rebuild();
+
+        Integer bookId = jdbcTemplate.queryForObject("select max(book_id) from books", Integer.class);
+        jdbcTemplate.update("update books set book_status = 'BORROWED' where book_id = ?", bookId);
+        bookFilterIndexService.refreshBook(bookId);
+        assertTrue(bookFilterIndexService.search(BookSearchCriteria.byBookStatus(BookStatus.BORROWED), null, null).get().contains(bookId));
+        assertSameAnswer(BookSearchCriteria.byBookStatus(BookStatus.AVAILABLE), null, null);
+
+        jdbcTemplate.update("delete from books where book_id = ?", bookId);
+        bookFilterIndexService.refreshBook(bookId);
+        assertSameAnswer(BookSearchCriteria.byBookStatus(BookStatus.BORROWED), null, null);
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "SHELFSHARE_BENCHMARK_BOOKS", matches = "[0-9]+")
+    void benchmarkAgainstSql() {
+        int books = Integer.parseInt(System.getenv("SHELFSHARE_BENCHMARK_BOOKS"));
+        Random random = new Random(1);
+        seedCatalog(random, Math.max(100, books / 50), books);
+        long started = System.currentTimeMillis();
+        bookFilterIndexService.rebuild();
+        logger.info("Index build for {} books: {} ms", books, System.currentTimeMillis() - started);
+
+        List<BookSearchCriteria> queries = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            queries.add(randomCriteria(random));
+        }
+        for (BookSearchCriteria criteria : queries.subList(0, 20)) {
+            assertSameAnswer(criteria, null, 21);
+        }
+        logger.info("First page of 20, {} queries over {} books: index p50 {} us, SQL p50 {} us",
+            queries.size(), books, medianMicros(queries, true), medianMicros(queries, false));
+    }
+
+    private long medianMicros(List<BookSearchCriteria> queries, boolean index) {
+        long[] micros = new long[queries.size()];
+        for (int round = 0; round < 2; round++) { // the first round only warms up
+            for (int i = 0; i < queries.size(); i++) {
+                long started = System.nanoTime();
+                if (index) {
+                    bookFilterIndexService.search(queries.get(i), null, 21);
+                } else {
+                    booksRepository.searchBookIds(queries.get(i), null, 21);
+                }
+                micros[i] = (System.nanoTime() - started) / 1000;
+            }
+        }
+        Arrays.sort(micros);
+        return micros[micros.length / 2];
+    }
+
+    private void assertSameAnswer(BookSearchCriteria criteria, Integer afterBookId, Integer limit) {
+        List<Integer> fromSql = booksRepository.searchBookIds(criteria, afterBookId, limit);
+        List<Integer> fromIndex = bookFilterIndexService.search(criteria, afterBookId, limit).orElseThrow();
+        assertEquals(fromSql, fromIndex, () -> criteria + " after " + afterBookId + " limit " + limit);
+    }
+
+    // Owners through the entity, so their *_key columns are maintained as in production; books in
+    // JDBC batches with the author key the entity would write.
+    private void seedCatalog(Random random, int owners, int books) {
+        List<Integer> ownerIds = new ArrayList<>();
+        for (int i = 0; i < owners; i++) {
+            String username = "owner" + random.nextLong();
+            ownerIds.add(userRepository.save(new Users(username, username, "digest", username + "@example.com",
+                pick(random, PINCODES), pick(random, AREAS), pick(random, CITIES), pick(random, STATES),
+                pick(random, COUNTRIES), false)).getUserId());
+        }
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < books; i++) {
+            String author = pick(random, AUTHORS);
+            rows.add(new Object[] {ownerIds.get(random.nextInt(owners)), "Book " + i, author, SearchKeys.normalize(author),
+                pick(random, BookGenre.values()).name(), pick(random, BookStatus.values()).name(), 1900 + random.nextInt(120)});
+            if (rows.size() == 5000 || i == books - 1) {
+                jdbcTemplate.batchUpdate("insert into books (current_owner_user_id, book_title, author_name, author_name_key, "
+                    + "book_genre, book_status, publication_year, enlisted, version) values (?, ?, ?, ?, ?, ?, ?, true, 0)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    // Each dimension is filtered on about a third of the time, with values in any case or padding.
+    private static BookSearchCriteria randomCriteria(Random random) {
+        return new BookSearchCriteria(
+            random.nextInt(3) == 0 ? pick(random, STATES) : null,
+            random.nextInt(3) == 0 ? pick(random, COUNTRIES) : null,
+            random.nextInt(3) == 0 ? pick(random, AREAS) : null,
+            random.nextInt(3) == 0 ? pick(random, CITIES) : null,
+            random.nextInt(4) == 0 ? pick(random, PINCODES) : null,
+            random.nextInt(3) == 0 ? pick(random, BookGenre.values()) : null,
+            random.nextInt(3) == 0 ? pick(random, AUTHORS) : null,
+            random.nextInt(3) == 0 ? pick(random, BookStatus.values()) : null);
+    }
+
+    private static <T> T pick(Random random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
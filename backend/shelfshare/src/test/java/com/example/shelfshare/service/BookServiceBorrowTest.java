@@ -0,0 +1,218 @@
+package com.example.shelfshare.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doThrow;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.shelfshare.entity.BookGenre;
+import com.example.shelfshare.entity.BookStatus;
+import com.example.shelfshare.entity.Books;
+import com.example.shelfshare.entity.BorrowRequestStatus;
+import com.example.shelfshare.entity.BorrowRequests;
+import com.example.shelfshare.entity.OwnershipTransferReason;
+import com.example.shelfshare.entity.Users;
+import com.example.shelfshare.model.OwnershipTransferView;
+import com.example.shelfshare.repository.BooksRepository;
+import com.example.shelfshare.repository.BorrowRequestRepository;
+import com.example.shelfshare.repository.OwnershipTransferRepository;
+import com.example.shelfshare.repository.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Runs against the migrated schema without a surrounding test transaction, so every call commits
+// (or loses) exactly as it would in production.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(BookService.class)
+class BookServiceBorrowTest {
+
+    private static final int BORROWERS = 16;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BooksRepository booksRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BorrowRequestRepository borrowRequestRepository;
+
+    @Autowired
+    private OwnershipTransferRepository ownershipTransferRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @MockitoBean
+    private BookSummaryPipeline bookSummaryPipeline;
+
+    @MockitoBean
+    private BookFilterIndexService bookFilterIndexService;
+
+    @MockitoBean
+    private BorrowRequestExpiryService borrowRequestExpiryService;
+
+    @Test
+    void exactlyOneConcurrentBorrowerWins() throws InterruptedException {
+        Users owner = userRepository.save(user("owner"));
+        Books book = booksRepository.save(new Books(null, "Dune", "Frank Herbert", BookGenre.FICTION, 1965,
+            owner, BookStatus.AVAILABLE, true, new ArrayList<>()));
+        Integer bookId = book.getBookId();
+        for (int i = 0; i < BORROWERS; i++) {
+            userRepository.save(user("borrower" + i));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(BORROWERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < BORROWERS; i++) {
+            String username = "borrower" + i;
+            attempts.add(pool.submit(() -> {
+                start.await();
+                return bookService.borrowBook(bookId, username);
+            }));
+        }
+        start.countDown();
+
+        int won = 0;
+        int lost = 0;
+        for (Future<Boolean> attempt : attempts) {
+            try {
+                assertTrue(attempt.get());
+                won++;
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof OptimisticLockingFailureException, e.getCause().toString());
+                lost++;
+            }
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1, won);
+        assertEquals(BORROWERS - 1, lost);
+        assertEquals(1, borrowRequestRepository.findByBookBookIdAndStatus(bookId, BorrowRequestStatus.PENDING).size());
+        assertEquals(BookStatus.REQUESTED, booksRepository.findById(bookId).get().getBookStatus());
+    }
+
+    @Test
+    void approvalCancelsCompetingRequestsInConstantStatements() {
+        long withOneCompetitor = approvalStatements("one", 1);
+        long withFiftyCompetitors = approvalStatements("fifty", 50);
+
+        assertEquals(withOneCompetitor, withFiftyCompetitors);
+    }
+
+    @Test
+    void reportingArchivesTheBookWithAnArchivedLedgerRow() {
+        Users owner = userRepository.save(user("archiver"));
+        Books book = ownedBook(owner);
+
+        assertTrue(bookService.reportBook(book, owner));
+
+        assertEquals(BookStatus.ARCHIVED, booksRepository.findById(book.getBookId()).get().getBookStatus());
+        List<OwnershipTransferView> ledger = ownershipTransferRepository.findPageByBookId(book.getBookId(), 0L, PageRequest.of(0, 10));
+        assertEquals(1, ledger.size());
+        assertEquals(OwnershipTransferReason.ARCHIVED, ledger.get(0).reason());
+        assertEquals("archiver", ledger.get(0).fromUsername());
+        assertNull(ledger.get(0).toUsername());
+        assertEquals(0, ownedBookRows(owner));
+    }
+
+    @Test
+    void failedReportLeavesBookLedgerAndShelfUntouched() {
+        Users owner = userRepository.save(user("failed-archiver"));
+        Books book = ownedBook(owner);
+        doThrow(new IllegalStateException("index unavailable")).when(bookFilterIndexService).refreshBookAfterCommit(book.getBookId());
+
+        assertThrows(IllegalStateException.class, () -> bookService.reportBook(book, owner));
+
+        assertEquals(BookStatus.AVAILABLE, booksRepository.findById(book.getBookId()).get().getBookStatus());
+        assertTrue(ownershipTransferRepository.findPageByBookId(book.getBookId(), 0L, PageRequest.of(0, 10)).isEmpty());
+        assertEquals(1, ownedBookRows(owner));
+    }
+
+    private Books ownedBook(Users owner) {
+        Books book = booksRepository.save(new Books(null, "Dune", "Frank Herbert", BookGenre.FICTION, 1965,
+            owner, BookStatus.AVAILABLE, true, new ArrayList<>()));
+        owner.getBookOwned().add(book.getBookId());
+        userRepository.save(owner);
+        return book;
+    }
+
+    private int ownedBookRows(Users owner) {
+        return jdbcTemplate.queryForObject("select count(*) from user_owned_books where user_id = ?", Integer.class, owner.getUserId());
+    }
+
+    // Approves the first of competitors + 1 pending requests for one book and returns the number of
+    // statements the approval prepared.
+    private long approvalStatements(String prefix, int competitors) {
+        Users owner = userRepository.save(user(prefix + "-owner"));
+        Books book = booksRepository.save(new Books(null, "Dune", "Frank Herbert", BookGenre.FICTION, 1965,
+            owner, BookStatus.REQUESTED, false, new ArrayList<>()));
+        List<Users> requesters = new ArrayList<>();
+        for (int i = 0; i <= competitors; i++) {
+            Users requester = userRepository.save(user(prefix + "-requester" + i));
+            BorrowRequests borrowRequest = new BorrowRequests();
+            borrowRequest.setBook(book);
+            borrowRequest.setOwner(owner);
+            borrowRequest.setRequester(requester);
+            borrowRequest.setRequestDate(Instant.now());
+            borrowRequest.setStatus(BorrowRequestStatus.PENDING);
+            borrowRequestRepository.save(borrowRequest);
+            requesters.add(requester);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertTrue(bookService.approveBorrowRequest(book.getBookId(), requesters.get(0).getUserId(), owner.getUserId()));
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals(competitors, borrowRequestRepository.findByBookBookIdAndStatus(book.getBookId(), BorrowRequestStatus.CANCELLED).size());
+        assertEquals(0, borrowRequestRepository.findByBookBookIdAndStatus(book.getBookId(), BorrowRequestStatus.PENDING).size());
+        assertEquals(BookStatus.BORROWED, booksRepository.findById(book.getBookId()).get().getBookStatus());
+        return statements;
+    }
+
+    private static Users user(String username) {
+        return new Users(username, username, "digest", username + "@example.com", "560001", "Indiranagar",
+            "Bengaluru", "Karnataka", "India", false);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.shelfshare.service;
+
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.shelfshare.model.NoteSummary;
+import com.example.shelfshare.repository.BooksRepository;
+
+class BookSummaryPipelineTest {
+
+    private static final int BOOK_ID = 7;
+    private static final long DEBOUNCE_MS = 100;
+
+    private final NoteSummarizationService noteSummarizationService = mock(NoteSummarizationService.class);
+    private final CustomTitleService customTitleService = mock(CustomTitleService.class);
+    private final BooksRepository booksRepository = mock(BooksRepository.class);
+    private BookSummaryPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        pipeline = new BookSummaryPipeline(noteSummarizationService, customTitleService, booksRepository, 2, DEBOUNCE_MS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void burstInsideDebounceWindowRunsOnce() {
+        when(noteSummarizationService.summarize(BOOK_ID)).thenReturn(new NoteSummary("summary", 3));
+
+        for (int i = 0; i < 5; i++) {
+            pipeline.requestRefresh(BOOK_ID);
+        }
+
+        verify(noteSummarizationService, timeout(2000)).summarize(BOOK_ID);
+        verify(noteSummarizationService, after(4 * DEBOUNCE_MS).times(1)).summarize(BOOK_ID);
+        verify(booksRepository).updateSummary(BOOK_ID, "summary", 3, null);
+    }
+
+    @Test
+    void requestDuringRefreshRunsExactlyOnceMore() throws InterruptedException {
+        CountDownLatch refreshing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(noteSummarizationService.summarize(BOOK_ID)).thenAnswer(invocation -> {
+            refreshing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new NoteSummary("summary", 3);
+        });
+
+        pipeline.requestRefresh(BOOK_ID);
+        refreshing.await(5, TimeUnit.SECONDS);
+        for (int i = 0; i < 3; i++) {
+            pipeline.requestRefresh(BOOK_ID);
+        }
+        release.countDown();
+
+        verify(noteSummarizationService, timeout(2000).times(2)).summarize(BOOK_ID);
+        verify(noteSummarizationService, after(4 * DEBOUNCE_MS).times(2)).summarize(BOOK_ID);
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.shelfshare.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.shelfshare.entity.BookGenre;
+import com.example.shelfshare.entity.BookStatus;
+import com.example.shelfshare.entity.Books;
+import com.example.shelfshare.entity.BorrowRequestStatus;
+import com.example.shelfshare.entity.Users;
+import com.example.shelfshare.repository.BooksRepository;
+import com.example.shelfshare.repository.BorrowRequestRepository;
+import com.example.shelfshare.repository.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Runs the deadline queue's worker thread against the migrated schema, with every expiry committing
+// as it would in production. Each test builds its own service and stops its worker afterwards.
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BorrowRequestExpiryServiceTest {
+
+    private static final long TTL_HOURS = 72;
+    private static final Duration TTL = Duration.ofHours(TTL_HOURS);
+    private static final int SWEEP_REQUESTS = 2000;
+    private static final int SWEEP_BOOKS = 50;
+
+    @Autowired
+    private BorrowRequestRepository borrowRequestRepository;
+
+    @Autowired
+    private BooksRepository booksRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<BorrowRequestExpiryService> services = new ArrayList<>();
+
+    @AfterEach
+    void stopWorkers() {
+        services.forEach(BorrowRequestExpiryService::shutdown);
+    }
+
+    @Test
+    void overdueRequestExpiresAtStartup() throws InterruptedException {
+        Users owner = userRepository.save(user("startup-owner"));
+        Users requester = userRepository.save(user("startup-requester"));
+        Integer bookId = requestedBook(owner);
+        Integer requestId = pendingRequest(bookId, owner, requester, Instant.now().minus(TTL).minusSeconds(60));
+
+        service(100, 2).loadOnStartup();
+
+        awaitStatus(requestId, BorrowRequestStatus.CANCELLED, Duration.ofSeconds(5));
+        assertEquals(BookStatus.AVAILABLE, bookStatus(bookId));
+    }
+
+    @Test
+    void requestExpiresAtItsDeadline() throws InterruptedException {
+        Users owner = userRepository.save(user("deadline-owner"));
+        Users requester = userRepository.save(user("deadline-requester"));
+        Integer bookId = requestedBook(owner);
+        Instant deadline = Instant.now().plusSeconds(2);
+        Integer requestId = pendingRequest(bookId, owner, requester, deadline.minus(TTL));
+
+        service(100, 2).loadOnStartup();
+
+        Thread.sleep(1000);
+        assertEquals(BorrowRequestStatus.PENDING, status(requestId));
+        awaitStatus(requestId, BorrowRequestStatus.CANCELLED, Duration.ofSeconds(5));
+        Instant expiredAt = Instant.now();
+        assertFalse(expiredAt.isBefore(deadline), "expired before its deadline");
+        assertTrue(Duration.between(deadline, expiredAt).toMillis() < 1500, "expired " + Duration.between(deadline, expiredAt) + " late");
+        assertEquals(BookStatus.AVAILABLE, bookStatus(bookId));
+    }
+
+    @Test
+    void bookWithAnotherPendingRequestStaysRequested() throws InterruptedException {
+        Users owner = userRepository.save(user("other-owner"));
+        Users lateRequester = userRepository.save(user("other-late"));
+        Users freshRequester = userRepository.save(user("other-fresh"));
+        Integer bookId = requestedBook(owner);
+        Integer overdueId = pendingRequest(bookId, owner, lateRequester, Instant.now().minus(TTL).minusSeconds(60));
+        Integer freshId = pendingRequest(bookId, owner, freshRequester, Instant.now());
+
+        service(100, 2).loadOnStartup();
+
+        awaitStatus(overdueId, BorrowRequestStatus.CANCELLED, Duration.ofSeconds(5));
+        assertEquals(BorrowRequestStatus.PENDING, status(freshId));
+        assertEquals(BookStatus.REQUESTED, bookStatus(bookId));
+    }
+
+    // An outage backlog: 2000 overdue requests spread round-robin over 50 books, so every chunk of 100
+    // touches every book. One book also has a fresh request. Each chunk is slowed down so the three
+    // workers stay busy and the sweeping thread has to run chunks itself once the pool's queue is full.
+    // Every chunk's own release finds nothing to do, as when concurrent chunks each still see the
+    // others' requests as pending, so only the final pass can put the books back on the shelf.
+    @Test
+    void sweepExpiresABacklogInConcurrentChunks() {
+        Users owner = userRepository.save(user("sweep-owner"));
+        Users requester = userRepository.save(user("sweep-requester"));
+        Users freshRequester = userRepository.save(user("sweep-fresh"));
+        List<Integer> bookIds = new ArrayList<>();
+        for (int i = 0; i < SWEEP_BOOKS; i++) {
+            bookIds.add(requestedBook(owner));
+        }
+        Timestamp overdue = Timestamp.from(Instant.now().minus(TTL).minusSeconds(3600));
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < SWEEP_REQUESTS; i++) {
+            rows.add(new Object[] {bookIds.get(i % SWEEP_BOOKS), owner.getUserId(), requester.getUserId(), overdue});
+        }
+        jdbcTemplate.batchUpdate("insert into borrow_requests (book_id, owner_id, requester_id, request_date, status, version) "
+            + "values (?, ?, ?, ?, 'PENDING', 0)", rows);
+        Integer keptBookId = bookIds.get(0);
+        Integer freshId = pendingRequest(keptBookId, owner, freshRequester, Instant.now());
+
+        Set<String> chunkThreads = ConcurrentHashMap.newKeySet();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger mostRunning = new AtomicInteger();
+        ThreadLocal<Boolean> inChunk = ThreadLocal.withInitial(() -> false);
+        BorrowRequestRepository slowRequests = mock(BorrowRequestRepository.class, AdditionalAnswers.delegatesTo(borrowRequestRepository));
+        doAnswer(invocation -> {
+            chunkThreads.add(Thread.currentThread().getName());
+            inChunk.set(true);
+            mostRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+                return borrowRequestRepository.transitionAllRequestedBefore(invocation.<Collection<Integer>>getArgument(0),
+                    invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3));
+            } finally {
+                running.decrementAndGet();
+            }
+        }).when(slowRequests).transitionAllRequestedBefore(any(), any(), any(), any());
+        AtomicInteger releasedByFinalPass = new AtomicInteger();
+        BooksRepository racingBooks = mock(BooksRepository.class, AdditionalAnswers.delegatesTo(booksRepository));
+        doAnswer(invocation -> {
+            if (inChunk.get()) {
+                inChunk.set(false);
+                return 0;
+            }
+            int released = booksRepository.releaseRequestedWithoutPending(invocation.<Collection<Integer>>getArgument(0));
+            releasedByFinalPass.addAndGet(released);
+            return released;
+        }).when(racingBooks).releaseRequestedWithoutPending(any());
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BorrowRequestExpiryService service = service(slowRequests, racingBooks, meterRegistry, 100, 3);
+        service.registerMeters();
+
+        assertEquals(SWEEP_REQUESTS, service.sweep());
+
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from borrow_requests where status = 'PENDING' "
+            + "and request_date < ?", Integer.class, Timestamp.from(Instant.now().minus(TTL))));
+        assertEquals(BorrowRequestStatus.PENDING, status(freshId));
+        assertEquals(BookStatus.REQUESTED, bookStatus(keptBookId));
+        for (Integer bookId : bookIds.subList(1, SWEEP_BOOKS)) {
+            assertEquals(BookStatus.AVAILABLE, bookStatus(bookId), "book " + bookId);
+        }
+        assertEquals(SWEEP_BOOKS - 1, releasedByFinalPass.get());
+
+        assertEquals(20, meterRegistry.get("shelfshare.borrow.expiry.sweep.chunks").tag("outcome", "success").counter().count());
+        assertEquals(SWEEP_REQUESTS, meterRegistry.get("shelfshare.borrow.expired").tag("trigger", "sweep").counter().count());
+        assertEquals(0, meterRegistry.get("shelfshare.borrow.expiry.lag.seconds").gauge().value());
+        assertEquals(0, meterRegistry.get("shelfshare.borrow.expiry.sweep.chunks.in-flight").gauge().value());
+        assertTrue(chunkThreads.contains(Thread.currentThread().getName()), "no chunk ran on the sweeping thread: " + chunkThreads);
+        assertEquals(4, chunkThreads.size(), chunkThreads::toString);
+        assertTrue(mostRunning.get() <= 4, mostRunning.get() + " chunks ran at once");
+
+        assertEquals(0, service.sweep());
+    }
+
+    private BorrowRequestExpiryService service(int batchSize, int sweepWorkers) {
+        return service(borrowRequestRepository, booksRepository, new SimpleMeterRegistry(), batchSize, sweepWorkers);
+    }
+
+    private BorrowRequestExpiryService service(BorrowRequestRepository borrowRequests, BooksRepository books,
+                                               MeterRegistry meterRegistry, int batchSize, int sweepWorkers) {
+        BorrowRequestExpiryService service = new BorrowRequestExpiryService(borrowRequests, books,
+            mock(BookFilterIndexService.class), transactionManager, meterRegistry, TTL_HOURS, batchSize, sweepWorkers);
+        services.add(service);
+        return service;
+    }
+
+    private Integer requestedBook(Users owner) {
+        return booksRepository.save(new Books(null, "Dune", "Frank Herbert", BookGenre.FICTION, 1965,
+            owner, BookStatus.REQUESTED, false, new ArrayList<>())).getBookId();
+    }
+
+    private Integer pendingRequest(Integer bookId, Users owner, Users requester, Instant requestDate) {
+        jdbcTemplate.update("insert into borrow_requests (book_id, owner_id, requester_id, request_date, status, version) "
+            + "values (?, ?, ?, ?, 'PENDING', 0)", bookId, owner.getUserId(), requester.getUserId(), Timestamp.from(requestDate));
+        return jdbcTemplate.queryForObject("select max(borrow_request_id) from borrow_requests", Integer.class);
+    }
+
+    private void awaitStatus(Integer borrowRequestId, BorrowRequestStatus expected, Duration timeout) throws InterruptedException {
+        Instant giveUp = Instant.now().plus(timeout);
+        while (status(borrowRequestId) != expected) {
+            assertTrue(Instant.now().isBefore(giveUp), "request " + borrowRequestId + " is still " + status(borrowRequestId));
+            Thread.sleep(20);
+        }
+    }
+
+    private BorrowRequestStatus status(Integer borrowRequestId) {
+        return BorrowRequestStatus.valueOf(jdbcTemplate.queryForObject(
+            "select status from borrow_requests where borrow_request_id = ?", String.class, borrowRequestId));
+    }
+
+    private BookStatus bookStatus(Integer bookId) {
+        return BookStatus.valueOf(jdbcTemplate.queryForObject("select book_status from books where book_id = ?", String.class, bookId));
+    }
+
+    private static Users user(String username) {
+        return new Users(username, username, "digest", username + "@example.com", "560001", "Indiranagar",
+            "Bengaluru", "Karnataka", "India", false);
+    }
+}
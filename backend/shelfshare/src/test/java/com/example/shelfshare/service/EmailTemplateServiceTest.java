@@ -0,0 +1,150 @@
+package com.example.shelfshare.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+// The benchmark compares rendering a batch from the cached template with the StringBuilder
+// concatenation the emails were built with before, and with an engine that re-parses the template
+// on every render. It only runs when SHELFSHARE_BENCHMARK_EMAILS is set to the batch size.
+class EmailTemplateServiceTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailTemplateServiceTest.class);
+
+    private final EmailTemplateService emailTemplateService = new EmailTemplateService(engine(true), "https://shelfshare.example");
+
+    @Test
+    void renderAllRendersOneBodyPerRecipientInOrder() {
+        List<String> bodies = emailTemplateService.renderAll(EmailTemplateService.BORROW_REQUEST_CANCELLED, List.of(
+            Map.of("requesterName", "Asha", "bookTitle", "Dune", "ownerName", "Ravi"),
+            Map.of("requesterName", "Meera", "bookTitle", "Dune", "ownerName", "Ravi"),
+            Map.of("requesterName", "Kabir", "bookTitle", "Dune", "ownerName", "Ravi")));
+
+        assertEquals(3, bodies.size());
+        assertTrue(bodies.get(0).contains("Dear <span>Asha</span>"));
+        assertTrue(bodies.get(1).contains("Dear <span>Meera</span>"));
+        assertTrue(bodies.get(2).contains("Dear <span>Kabir</span>"));
+        for (String body : bodies) {
+            assertTrue(body.contains("<strong>Dune</strong>"));
+            assertTrue(body.contains("href=\"https://shelfshare.example/browse\""));
+        }
+        // no recipient's variables leak into the next body
+        assertFalse(bodies.get(1).contains("Asha"));
+        assertFalse(bodies.get(2).contains("Meera"));
+    }
+
+    @Test
+    void renderAllMatchesRenderingEachRecipientAlone() {
+        Map<String, Object> variables = Map.of("requesterName", "Asha", "ownerName", "Ravi", "bookTitle", "Dune",
+            "ownerEmail", "ravi@example.com");
+
+        assertEquals(List.of(emailTemplateService.render(EmailTemplateService.BORROW_REQUEST_ACCEPTED_REQUESTER, variables)),
+            emailTemplateService.renderAll(EmailTemplateService.BORROW_REQUEST_ACCEPTED_REQUESTER, List.of(variables)));
+        assertEquals(List.of(), emailTemplateService.renderAll(EmailTemplateService.BORROW_REQUEST_CANCELLED, List.of()));
+    }
+
+    @Test
+    void escapesUserSuppliedText() {
+        String body = emailTemplateService.render(EmailTemplateService.BORROW_REQUEST_CANCELLED,
+            Map.of("requesterName", "<script>alert(1)</script>", "bookTitle", "Dune", "ownerName", "Ravi"));
+
+        assertFalse(body.contains("<script>"));
+        assertTrue(body.contains("&lt;script&gt;"));
+    }
+
+    @Test
+    void everyTemplateLoads() {
+        emailTemplateService.warmUp();
+        for (String template : List.of(EmailTemplateService.WELCOME, EmailTemplateService.BORROW_REQUEST_RECEIVED,
+                EmailTemplateService.BORROW_REQUEST_ACCEPTED_REQUESTER, EmailTemplateService.BORROW_REQUEST_ACCEPTED_OWNER,
+                EmailTemplateService.BORROW_REQUEST_CANCELLED)) {
+            assertTrue(emailTemplateService.render(template, Map.of()).contains("The ShelfShare Team"), template);
+        }
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "SHELFSHARE_BENCHMARK_EMAILS", matches = "[0-9]+")
+    void benchmarkAgainstStringConcatenation() {
+        int emails = Integer.parseInt(System.getenv("SHELFSHARE_BENCHMARK_EMAILS"));
+        List<Map<String, Object>> recipients = new ArrayList<>();
+        for (int i = 0; i < emails; i++) {
+            recipients.add(Map.of("requesterName", "Reader " + i, "ownerName", "Owner " + i, "bookTitle", "Book " + i,
+                "ownerEmail", "owner" + i + "@example.com"));
+        }
+        EmailTemplateService uncached = new EmailTemplateService(engine(false), "https://shelfshare.example");
+        String template = EmailTemplateService.BORROW_REQUEST_ACCEPTED_REQUESTER;
+
+        long concatenated = medianMicros(() -> {
+            List<String> bodies = new ArrayList<>(recipients.size());
+            for (Map<String, Object> variables : recipients) {
+                bodies.add(concatenatedAcceptedForRequester((String) variables.get("requesterName"),
+                    (String) variables.get("ownerName"), (String) variables.get("ownerEmail"), (String) variables.get("bookTitle")));
+            }
+            return bodies;
+        });
+        long cached = medianMicros(() -> emailTemplateService.renderAll(template, recipients));
+        long reparsed = medianMicros(() -> uncached.renderAll(template, recipients));
+        logger.info("{} accepted-request emails: concatenation {} us, cached template {} us, re-parsed template {} us per batch",
+            emails, concatenated, cached, reparsed);
+    }
+
+    // median of 20 timed batches, after 5 that only warm up
+    private static long medianMicros(Supplier<List<String>> batch) {
+        long[] micros = new long[20];
+        for (int round = -5; round < micros.length; round++) {
+            long started = System.nanoTime();
+            if (batch.get().isEmpty()) {
+                throw new IllegalStateException("nothing rendered");
+            }
+            if (round >= 0) {
+                micros[round] = (System.nanoTime() - started) / 1000;
+            }
+        }
+        Arrays.sort(micros);
+        return micros[micros.length / 2];
+    }
+
+    // EmailService's body for the accepted-request email before it moved to templates, verbatim
+    private static String concatenatedAcceptedForRequester(String requesterName, String ownerName, String ownerEmail, String bookTitle) {
+        StringBuilder content = new StringBuilder();
+        content.append("<html><body>");
+        content.append("<p>Dear ").append(requesterName).append(",</p>");
+        content.append("<p>Great news! Your request to borrow <strong>").append(bookTitle).append("</strong> from ").append(ownerName).append(" has been ACCEPTED!</p>");
+        content.append("<p>You can now connect with ").append(ownerName).append(" to arrange the exchange of the book.</p>");
+        content.append("<p>Here's how to connect:</p>");
+        content.append("<ul>");
+        content.append("<li><strong>Owner's Email:</strong> <a href=\"mailto:").append(ownerEmail).append("\">").append(ownerEmail).append("</a></li>");
+        content.append("<li><strong>Google Chat:</strong> You can reach them via Google Chat using their email address. Just open Google Chat and start a new conversation with ").append(ownerEmail).append(".</li>");
+        content.append("</ul>");
+        content.append("<p>Please coordinate with ").append(ownerName).append(" directly regarding the pickup/delivery of the book.</p>");
+        content.append("<p>Happy Reading!</p>");
+        content.append("<p>Best regards,</p>");
+        content.append("<p>The ShelfShare Team</p>");
+        content.append("<p><small>This is an automated email, please do not reply.</small></p>");
+        content.append("</body></html>");
+        return content.toString();
+    }
+
+    private static SpringTemplateEngine engine(boolean cacheable) {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setCacheable(cacheable);
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        return engine;
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.shelfshare.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.RestTemplate;
+
+import com.example.shelfshare.entity.Notes;
+import com.example.shelfshare.model.NoteSummarizationRequest;
+import com.example.shelfshare.model.NoteSummarizationResponse;
+import com.example.shelfshare.model.NoteSummary;
+import com.example.shelfshare.repository.BooksRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// The benchmark compares the extractive summarizer with the remote model on a fixed generated
+// corpus; it only runs when SHELFSHARE_SUMMARIZER_URL points at a running summarization service,
+// e.g. note-summarization/stub_server.py or app.py on http://localhost:5000.
+class ExtractiveNoteSummarizerTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExtractiveNoteSummarizerTest.class);
+
+    private static final List<String> NOTES = List.of(
+        "A gripping thriller about a detective hunting a killer in Oslo. The pacing is relentless!",
+        "The detective is flawed but brilliant. I loved the Oslo setting and the cold winter.",
+        "Slow start, but the last hundred pages are relentless. The killer's identity surprised me.",
+        "Great thriller\nThe snowman motif is creepy",
+        "Great thriller");
+
+    private final List<ExtractiveNoteSummarizer> summarizers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        summarizers.forEach(ExtractiveNoteSummarizer::shutdown);
+    }
+
+    @Test
+    void picksSentencesFromTheNotesInTheirOriginalOrder() {
+        String summary = summarizer(3, 0.5, 2000).summarize(1, NOTES, null).orElseThrow();
+
+        List<String> sentences = List.of(summary.split("(?<=[.!?]) "));
+        assertTrue(sentences.size() >= 1 && sentences.size() <= 3, summary);
+        int previous = -1;
+        String allNotes = String.join(" ", NOTES);
+        for (String sentence : sentences) {
+            // sentences that ended without punctuation come back closed with a period
+            String text = allNotes.contains(sentence) ? sentence : sentence.substring(0, sentence.length() - 1);
+            int at = allNotes.indexOf(text);
+            assertTrue(at > previous, () -> "out of order or not from the notes: " + sentence);
+            previous = at;
+        }
+    }
+
+    @Test
+    void summaryLengthFollowsRatioAndCap() {
+        assertEquals(1, sentencesIn(summarizer(5, 0.01, 2000).summarize(1, NOTES, null).orElseThrow()));
+        assertTrue(sentencesIn(summarizer(2, 1.0, 2000).summarize(1, NOTES, null).orElseThrow()) <= 2);
+    }
+
+    @Test
+    void incrementalCallReadsThePreviousSummaryFirst() {
+        String summary = summarizer(1, 1.0, 2000)
+            .summarize(1, List.of("Nothing new."), "Relentless Oslo detective thriller, relentless Oslo detective.")
+            .orElseThrow();
+
+        assertEquals("Relentless Oslo detective thriller, relentless Oslo detective.", summary);
+    }
+
+    // in a Turkish locale "IS".toLowerCase() is "ıs", so capitalised stop words would count as terms
+    @Test
+    void stopWordsMatchInAnyDefaultLocale() {
+        List<String> notes = List.of("IT IS IN THIS BOOK THAT IT IS IN ITS PRIME. The dragon hoards gold. "
+            + "The dragon sleeps on gold. The dragon is slain.");
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            assertEquals("The dragon hoards gold.", ExtractiveNoteSummarizer.extract(notes, 1, 0.25));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    void notesWithoutWordsHaveNoSummary() {
+        assertEquals(Optional.empty(), summarizer(5, 0.2, 2000).summarize(1, List.of("", "  ...  ", "!!"), null));
+    }
+
+    @Test
+    void givesUpAtTheTimeout() {
+        List<String> notes = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            notes.addAll(NOTES);
+        }
+
+        assertEquals(Optional.empty(), summarizer(5, 0.2, 1).summarize(1, notes, null));
+    }
+
+    // engine=auto: a failed remote call falls back to the extractive summary, without a watermark so
+    // the next refresh retries the model; when the extract fails too, the latest note stands in.
+    @Test
+    void summarizationFallsBackToExtractiveThenLatestNote() {
+        RemoteNoteSummarizer remote = mock(RemoteNoteSummarizer.class);
+        when(remote.name()).thenReturn("remote");
+        when(remote.summarize(anyInt(), anyList(), any())).thenReturn(Optional.empty());
+        NotesService notesService = mock(NotesService.class);
+        List<Notes> notes = new ArrayList<>();
+        for (int i = 0; i < NOTES.size(); i++) {
+            Notes note = new Notes();
+            note.setNoteId(i + 1);
+            note.setNoteContent(NOTES.get(i));
+            notes.add(note);
+        }
+        when(notesService.findAllNotesByBookId(1)).thenReturn(notes);
+        when(notesService.getMostRecentNoteForBook(1)).thenReturn(Optional.of(notes.get(notes.size() - 1)));
+        BooksRepository booksRepository = mock(BooksRepository.class);
+
+        NoteSummary extractive = new NoteSummarizationService(remote, summarizer(5, 0.2, 2000), notesService,
+            booksRepository, new SimpleMeterRegistry(), true, "auto").summarizeAll(1);
+        assertEquals(summarizer(5, 0.2, 2000).summarize(1, NOTES, null).orElseThrow(), extractive.summary());
+        assertEquals(null, extractive.summarizedThroughNoteId());
+
+        List<String> slowNotes = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            slowNotes.addAll(NOTES);
+        }
+        List<Notes> manyNotes = new ArrayList<>();
+        for (String content : slowNotes) {
+            Notes note = new Notes();
+            note.setNoteContent(content);
+            manyNotes.add(note);
+        }
+        when(notesService.findAllNotesByBookId(1)).thenReturn(manyNotes);
+        NoteSummary latest = new NoteSummarizationService(remote, summarizer(5, 0.2, 1), notesService,
+            booksRepository, new SimpleMeterRegistry(), true, "auto").summarizeAll(1);
+        assertEquals(new NoteSummary("Great thriller", null), latest);
+    }
+
+    // Latency of both engines per book, and how much of the remote summary's vocabulary the extract
+    // recovers (unigram overlap F1, with the remote summary as the reference).
+    @Test
+    @EnabledIfEnvironmentVariable(named = "SHELFSHARE_SUMMARIZER_URL", matches = "https?://.+")
+    void benchmarkAgainstRemoteModel() {
+        String url = System.getenv("SHELFSHARE_SUMMARIZER_URL").replaceAll("/+$", "") + "/get_summarized_text";
+        RestTemplate restTemplate = new RestTemplate();
+        ExtractiveNoteSummarizer extractive = summarizer(5, 0.2, 2000);
+        List<List<String>> corpus = corpus(new Random(16), 100);
+
+        long[] extractiveMicros = new long[corpus.size()];
+        long[] remoteMicros = new long[corpus.size()];
+        double overlap = 0;
+        for (int round = 0; round < 2; round++) { // the first round only warms up
+            overlap = 0;
+            for (int i = 0; i < corpus.size(); i++) {
+                long started = System.nanoTime();
+                String local = extractive.summarize(i, corpus.get(i), null).orElseThrow();
+                extractiveMicros[i] = (System.nanoTime() - started) / 1000;
+
+                started = System.nanoTime();
+                NoteSummarizationResponse response = restTemplate.postForObject(url,
+                    new NoteSummarizationRequest(corpus.get(i)), NoteSummarizationResponse.class);
+                remoteMicros[i] = (System.nanoTime() - started) / 1000;
+                overlap += unigramF1(local, response.summary());
+            }
+        }
+        Arrays.sort(extractiveMicros);
+        Arrays.sort(remoteMicros);
+        logger.info("{} books: extractive p50 {} us p95 {} us, remote p50 {} us p95 {} us, mean unigram F1 against remote {}",
+            corpus.size(), extractiveMicros[corpus.size() / 2], extractiveMicros[corpus.size() * 95 / 100],
+            remoteMicros[corpus.size() / 2], remoteMicros[corpus.size() * 95 / 100],
+            String.format(Locale.ROOT, "%.3f", overlap / corpus.size()));
+    }
+
+    // Reviews of 4 to 40 notes, each a few sentences drawn from a fixed pool, so every run sees the
+    // same text.
+    private static List<List<String>> corpus(Random random, int books) {
+        String[] sentences = {
+            "The detective is flawed but brilliant.", "The pacing is relentless from the first chapter.",
+            "I loved the Oslo setting and the cold winter.", "The ending felt rushed.",
+            "The killer's identity surprised me.", "Slow start, but it pays off.",
+            "The translation reads naturally.", "Too many side characters to keep track of.",
+            "The snowman motif is creepy.", "A gripping thriller about a hunt for a killer.",
+            "The dialogue is sharp and often funny.", "I guessed the twist halfway through.",
+            "The author clearly knows the city well.", "Some chapters drag on.", "Would happily read the sequel."
+        };
+        List<List<String>> corpus = new ArrayList<>();
+        for (int b = 0; b < books; b++) {
+            List<String> notes = new ArrayList<>();
+            int noteCount = 4 + random.nextInt(37);
+            for (int n = 0; n < noteCount; n++) {
+                StringBuilder note = new StringBuilder();
+                for (int k = 1 + random.nextInt(4); k > 0; k--) {
+                    note.append(note.isEmpty() ? "" : " ").append(sentences[random.nextInt(sentences.length)]);
+                }
+                notes.add(note.toString());
+            }
+            corpus.add(notes);
+        }
+        return corpus;
+    }
+
+    private static double unigramF1(String candidate, String reference) {
+        Map<String, Integer> candidateCounts = unigrams(candidate);
+        Map<String, Integer> referenceCounts = unigrams(reference);
+        int common = 0;
+        for (var entry : candidateCounts.entrySet()) {
+            common += Math.min(entry.getValue(), referenceCounts.getOrDefault(entry.getKey(), 0));
+        }
+        int candidateTotal = candidateCounts.values().stream().mapToInt(Integer::intValue).sum();
+        int referenceTotal = referenceCounts.values().stream().mapToInt(Integer::intValue).sum();
+        if (common == 0) {
+            return 0;
+        }
+        double precision = (double) common / candidateTotal;
+        double recall = (double) common / referenceTotal;
+        return 2 * precision * recall / (precision + recall);
+    }
+
+    private static Map<String, Integer> unigrams(String text) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}']+")) {
+            if (!word.isEmpty()) {
+                counts.merge(word, 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    private ExtractiveNoteSummarizer summarizer(int maxSentences, double ratio, long timeoutMs) {
+        ExtractiveNoteSummarizer summarizer = new ExtractiveNoteSummarizer(maxSentences, ratio, 1, 4, timeoutMs);
+        summarizers.add(summarizer);
+        return summarizer;
+    }
+
+    private static int sentencesIn(String summary) {
+        return summary.split("(?<=[.!?]) ").length;
+    }
+}
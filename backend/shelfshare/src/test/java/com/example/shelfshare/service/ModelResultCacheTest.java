@@ -0,0 +1,63 @@
+package com.example.shelfshare.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.shelfshare.entity.ModelResultCacheEntry;
+import com.example.shelfshare.repository.ModelResultCacheRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ModelResultCacheTest {
+
+    @Autowired
+    private ModelResultCacheRepository modelResultCacheRepository;
+
+    @Test
+    void identicalInputsHitAndOtherModelVersionsMiss() {
+        ModelResultCache v1 = cache("1");
+        v1.put(ModelResultCache.SUMMARY, List.of("a", "bc"), "summary");
+
+        assertEquals("summary", v1.get(ModelResultCache.SUMMARY, List.of("a", "bc")).orElseThrow());
+        assertTrue(v1.get(ModelResultCache.SUMMARY, List.of("ab", "c")).isEmpty());
+        assertEquals("summary", cache("1").get(ModelResultCache.SUMMARY, List.of("a", "bc")).orElseThrow());
+        assertTrue(cache("2").get(ModelResultCache.SUMMARY, List.of("a", "bc")).isEmpty());
+    }
+
+    @Test
+    void purgeKeepsOnlyCurrentVersionWithinTtl() {
+        modelResultCacheRepository.deleteAll();
+        cache("1").put(ModelResultCache.SUMMARY, List.of("old model"), "stale");
+        ModelResultCache current = cache("2");
+        current.put(ModelResultCache.SUMMARY, List.of("current model"), "fresh");
+        modelResultCacheRepository.save(new ModelResultCacheEntry("expired", ModelResultCache.MASTER_TITLE, "title", "2",
+            Instant.now().minus(Duration.ofDays(91))));
+        modelResultCacheRepository.save(new ModelResultCacheEntry("unversioned", ModelResultCache.SUMMARY, "summary", null,
+            Instant.now()));
+
+        assertEquals(3, current.purgeStale());
+        assertEquals(0, current.purgeStale());
+        assertEquals(1, modelResultCacheRepository.count());
+        assertEquals("fresh", cache("2").get(ModelResultCache.SUMMARY, List.of("current model")).orElseThrow());
+    }
+
+    private ModelResultCache cache(String modelVersion) {
+        return new ModelResultCache(modelResultCacheRepository, new SimpleMeterRegistry(), 100, true, modelVersion, 90);
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.shelfshare.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.shelfshare.config.DownstreamClient;
+import com.example.shelfshare.model.UserAddressResponse;
+import com.example.shelfshare.repository.PincodeAddressRepository;
+import com.example.shelfshare.tools.PincodeDirectoryBuilder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Reads a directory file written by PincodeDirectoryBuilder, and checks that PincodeResolver only
+// consults it, or anything else, for pincodes of the form [1-9][0-9]{5}. The benchmark compares a
+// directory lookup with a hit in the resolver's in-memory cache; it only runs when
+// SHELFSHARE_BENCHMARK_PINCODES is set to the directory size, and also times the postalpincode.in
+// API when SHELFSHARE_BENCHMARK_REMOTE=true.
+class PincodeDirectoryTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PincodeDirectoryTest.class);
+
+    @TempDir
+    private Path dir;
+
+    private Path directoryFile;
+
+    @BeforeEach
+    void buildDirectory() throws IOException {
+        Path csv = dir.resolve("pincodes.csv");
+        Files.writeString(csv, String.join("\n",
+            "\uFEFFOfficeName,Pincode,District,StateName",
+            "Indiranagar S.O,560038,Bengaluru,Karnataka",
+            "\"HAL II Stage, H.O\",560038,Bengaluru,Karnataka",
+            "Indiranagar S.O,560038,Bengaluru,Karnataka",
+            "Pune City H.O,411001,Pune,Maharashtra",
+            "Fort Kochi S.O,682001,Ernakulam,Kerala",
+            "Nowhere,n/a,Nowhere,Nowhere"), StandardCharsets.UTF_8);
+        directoryFile = dir.resolve("pincodes.bin");
+        PincodeDirectoryBuilder.main(new String[] {csv.toString(), directoryFile.toString()});
+    }
+
+    @Test
+    void findsEveryPincodeInTheFile() {
+        PincodeDirectory directory = new PincodeDirectory(directoryFile.toString());
+
+        assertTrue(directory.isLoaded());
+        assertEquals(3, directory.size());
+        UserAddressResponse address = directory.find("560038").orElseThrow();
+        assertEquals(List.of("Indiranagar S.O", "HAL II Stage, H.O"), address.area());
+        assertEquals("Bengaluru", address.city());
+        assertEquals("Karnataka", address.state());
+        assertEquals("India", address.country());
+        assertEquals(List.of("Pune City H.O"), directory.find("411001").orElseThrow().area());
+        assertEquals("Kerala", directory.find("682001").orElseThrow().state());
+    }
+
+    @Test
+    void missesPincodesNotInTheFile() {
+        PincodeDirectory directory = new PincodeDirectory(directoryFile.toString());
+
+        assertEquals(Optional.empty(), directory.find("110001"));
+        assertEquals(Optional.empty(), directory.find("100000"));
+        assertEquals(Optional.empty(), directory.find("999999"));
+        assertEquals(Optional.empty(), directory.find("56003x"));
+    }
+
+    @Test
+    void staysUnloadedWithoutAUsableFile() throws IOException {
+        Path notADirectory = dir.resolve("other.bin");
+        Files.writeString(notADirectory, "not a pincode directory");
+
+        for (String path : new String[] {"", " ", dir.resolve("missing.bin").toString(), notADirectory.toString()}) {
+            PincodeDirectory directory = new PincodeDirectory(path);
+            assertFalse(directory.isLoaded(), path);
+            assertEquals(Optional.empty(), directory.find("560038"));
+        }
+    }
+
+    @Test
+    void resolverRejectsMalformedPincodesBeforeAnyLookup() {
+        PincodeDirectory directory = spy(new PincodeDirectory(directoryFile.toString()));
+        DownstreamClient pincodeClient = mock(DownstreamClient.class);
+        PincodeAddressRepository pincodeAddressRepository = mock(PincodeAddressRepository.class);
+        PincodeResolver resolver = new PincodeResolver(pincodeClient, directory, pincodeAddressRepository,
+            new ObjectMapper(), new SimpleMeterRegistry(), 100, 720, 24, true, true);
+
+        for (String pincode : new String[] {"012345", "56003", "5600381", "abcdef", "56 038", "+56003", "５６００３８"}) {
+            assertEquals("Invalid pincode", resolver.resolve(pincode).message(), pincode);
+        }
+        verify(directory, never()).find(any());
+        verifyNoInteractions(pincodeClient, pincodeAddressRepository);
+
+        assertEquals("Bengaluru", resolver.resolve(" 560038 ").city());
+        verifyNoInteractions(pincodeClient, pincodeAddressRepository);
+    }
+
+    @Test
+    void resolverAnswersMissesFromTheDirectoryWithoutRemoteFallback() {
+        DownstreamClient pincodeClient = mock(DownstreamClient.class);
+        PincodeAddressRepository pincodeAddressRepository = mock(PincodeAddressRepository.class);
+        PincodeResolver resolver = new PincodeResolver(pincodeClient, new PincodeDirectory(directoryFile.toString()),
+            pincodeAddressRepository, new ObjectMapper(), new SimpleMeterRegistry(), 100, 720, 24, true, false);
+
+        UserAddressResponse miss = resolver.resolve("110001");
+
+        assertEquals("No records found", miss.message());
+        assertTrue(miss.area().isEmpty());
+        verifyNoInteractions(pincodeClient, pincodeAddressRepository);
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "SHELFSHARE_BENCHMARK_PINCODES", matches = "[0-9]+")
+    void benchmarkAgainstCachedAndRemoteLookups() throws IOException {
+        int size = Integer.parseInt(System.getenv("SHELFSHARE_BENCHMARK_PINCODES"));
+        Random random = new Random(19);
+        TreeSet<Integer> generated = new TreeSet<>();
+        while (generated.size() < size) {
+            generated.add(100000 + random.nextInt(900000));
+        }
+        List<String> pincodes = generated.stream().map(String::valueOf).toList();
+        StringBuilder csv = new StringBuilder("OfficeName,Pincode,District,StateName\n");
+        for (String pincode : pincodes) {
+            for (int office = 1 + random.nextInt(4); office > 0; office--) {
+                csv.append("Office ").append(office).append(" S.O,").append(pincode).append(",District ")
+                    .append(pincode.substring(0, 3)).append(",State ").append(pincode.charAt(0)).append('\n');
+            }
+        }
+        Path csvFile = dir.resolve("benchmark.csv");
+        Path binFile = dir.resolve("benchmark.bin");
+        Files.writeString(csvFile, csv, StandardCharsets.UTF_8);
+        PincodeDirectoryBuilder.main(new String[] {csvFile.toString(), binFile.toString()});
+
+        List<String> lookups = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            lookups.add(pincodes.get(random.nextInt(pincodes.size())));
+        }
+        PincodeDirectory directory = new PincodeDirectory(binFile.toString());
+        long directoryNanos = medianNanos(lookups, 2, pincode -> directory.find(pincode).orElseThrow());
+
+        // every pincode answered once by a stubbed upstream, so the timed lookups all hit the memory cache
+        DownstreamClient pincodeClient = mock(DownstreamClient.class);
+        JsonNode found = new ObjectMapper().readTree("{\"Status\": \"Success\", \"Message\": \"Number of Post office(s) found: 1\", "
+            + "\"PostOffice\": [{\"Name\": \"Office 1 S.O\", \"District\": \"District\", \"State\": \"State\", \"Country\": \"India\"}]}");
+        when(pincodeClient.execute(any())).thenReturn(found);
+        PincodeResolver cachedResolver = new PincodeResolver(pincodeClient, new PincodeDirectory(""), mock(PincodeAddressRepository.class),
+            new ObjectMapper(), new SimpleMeterRegistry(), size, 720, 24, false, true);
+        pincodes.forEach(cachedResolver::resolve);
+        long cachedNanos = medianNanos(lookups, 2, cachedResolver::resolve);
+
+        String remote = "skipped";
+        if ("true".equals(System.getenv("SHELFSHARE_BENCHMARK_REMOTE"))) {
+            SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+            try (DownstreamClient apiClient = DownstreamClient.create("pincode",
+                    new DownstreamClient.Settings(2000, 5000, 4, 4, 100, 5, 30000), meterRegistry)) {
+                PincodeResolver remoteResolver = new PincodeResolver(apiClient, new PincodeDirectory(""), mock(PincodeAddressRepository.class),
+                    new ObjectMapper(), meterRegistry, 100, 720, 24, false, true);
+                List<String> known = List.of("560038", "110001", "400001", "411001", "682001", "600001", "700001", "500001");
+                // one pass, since a second would be served from the resolver's cache; the resolver answers
+                // failures with an empty address rather than throwing
+                remote = remoteResolver.resolve("560001").area().isEmpty() ? "unreachable"
+                    : (medianNanos(known, 1, remoteResolver::resolve) / 1000) + " us";
+            }
+        }
+        logger.info("{} pincodes: directory p50 {} ns, cached resolver p50 {} ns, remote API p50 {}, directory file {} bytes",
+            size, directoryNanos, cachedNanos, remote, Files.size(binFile));
+    }
+
+    // Median over the lookups of the last pass; earlier passes only warm up.
+    private static long medianNanos(List<String> pincodes, int passes, Function<String, Object> lookup) {
+        long[] nanos = new long[pincodes.size()];
+        for (int pass = 0; pass < passes; pass++) {
+            for (int i = 0; i < pincodes.size(); i++) {
+                long started = System.nanoTime();
+                lookup.apply(pincodes.get(i));
+                nanos[i] = System.nanoTime() - started;
+            }
+        }
+        Arrays.sort(nanos);
+        return nanos[nanos.length / 2];
+    }
+}
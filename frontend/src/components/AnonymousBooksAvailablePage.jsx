@@ -30,6 +30,9 @@ const AnonymousBooksAvailablePage = ({ searchQuery, onSelectBookOffer }) => {
 
   const [currentFilteredOffers, setCurrentFilteredOffers] = useState([]);
 
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
+
   const navigate = useNavigate();
   const commonToastOptions = {
     position: "top-right",
@@ -66,85 +69,51 @@ const AnonymousBooksAvailablePage = ({ searchQuery, onSelectBookOffer }) => {
   const getRandomColor = () => stickyNoteColors[Math.floor(Math.random() * stickyNoteColors.length)];
   const getRandomRotation = () => stickyNoteRotations[Math.floor(Math.random() * stickyNoteRotations.length)];
 
+  // /anonymous-books answers one page at a time; nextCursor asks for the page after it and is
+  // null once the board has been read to the end.
+  const fetchOffersPage = async (cursor) => {
+    const url = cursor
+      ? `http://localhost:1234/anonymous-books?cursor=${encodeURIComponent(cursor)}`
+      : 'http://localhost:1234/anonymous-books';
+    const response = await fetch(url);
+    if (!response.ok) {
+      const errorText = await response.text();
+      throw new Error(`HTTP error! Status: ${response.status} - ${errorText || response.statusText}`);
+    }
+    const data = await response.json();
+
+    const processedOffers = data.books.map(backendOffer => {
+      const genre = backendOffer.bookGenre && backendOffer.bookGenre.trim() !== '' ? backendOffer.bookGenre.trim() : '';
+      const author = backendOffer.bookAuthor && backendOffer.bookAuthor.trim() !== '' ? backendOffer.bookAuthor.trim() : '';
+      return {
+        ...backendOffer,
+        color: getRandomColor(),
+        rotation: getRandomRotation(),
+        genre: genre,
+        author: author,
+        tags: Array.isArray(backendOffer.tags) ? backendOffer.tags.map(tag => tag.trim()).filter(tag => tag !== '') : [],
+        datePosted: backendOffer.datePosted || 'N/A',
+        condition: backendOffer.condition || 'N/A',
+        bookId: backendOffer.bookId,
+        userState: backendOffer.userState?.trim(),
+        userCity: backendOffer.userCity?.trim(),
+        userArea: backendOffer.userArea?.trim()
+      };
+    });
+    return { offers: processedOffers, nextCursor: data.nextCursor };
+  };
+
   useEffect(() => {
     const fetchAnonymousOffers = async () => {
       setLoading(true);
       setError(null);
 
       try {
-        const response = await fetch('http://localhost:1234/anonymous-books');
-        if (!response.ok) {
-          const errorText = await response.text();
-          throw new Error(`HTTP error! Status: ${response.status} - ${errorText || response.statusText}`);
-        }
-        const data = await response.json();
-
-        const uniqueGenresSet = new Set(['All']);
-        const uniqueAuthorsSet = new Set(['All']);
-        const map = {};
-
-        const processedOffers = data.map(backendOffer => {
-          const genre = backendOffer.bookGenre && backendOffer.bookGenre.trim() !== '' ? backendOffer.bookGenre.trim() : '';
-          const author = backendOffer.bookAuthor && backendOffer.bookAuthor.trim() !== '' ? backendOffer.bookAuthor.trim() : '';
-
-          const state = backendOffer.userState?.trim();
-          const city = backendOffer.userCity?.trim();
-          const area = backendOffer.userArea?.trim();
-
-          if (state) {
-            if (!map[state]) {
-              map[state] = {};
-            }
-            if (city) {
-              if (!map[state][city]) {
-                map[state][city] = new Set();
-              }
-              if (area) {
-                map[state][city].add(area);
-              }
-            }
-          }
-
-          if (genre) {
-            uniqueGenresSet.add(genre);
-          }
-          if (author) {
-            uniqueAuthorsSet.add(author);
-          }
-
-          if (Array.isArray(backendOffer.tags)) {
-            backendOffer.tags.forEach(tag => {
-              if (tag && tag.trim() !== '') {
-                uniqueGenresSet.add(tag.trim());
-              }
-            });
-          }
-          return {
-            ...backendOffer,
-            color: getRandomColor(),
-            rotation: getRandomRotation(),
-            genre: genre,
-            author: author,
-            tags: Array.isArray(backendOffer.tags) ? backendOffer.tags.map(tag => tag.trim()).filter(tag => tag !== '') : [],
-            datePosted: backendOffer.datePosted || 'N/A',
-            condition: backendOffer.condition || 'N/A',
-            bookId: backendOffer.bookId,
-            userState: state,
-            userCity: city,
-            userArea: area
-          };
-        });
-        setAllOffers(processedOffers);
-        setUniqueGenres(Array.from(uniqueGenresSet).sort());
-        setUniqueAuthors(Array.from(uniqueAuthorsSet).sort());
-        setAvailableStates(Object.keys(map).sort());
-        setStateCityAreaMap(map);
-
+        const page = await fetchOffersPage(null);
+        setAllOffers(page.offers);
+        setNextCursor(page.nextCursor);
       } catch (err) {
         setError(`Failed to load anonymous book offers: ${err.message || "An unexpected error occurred."}`);
-        setUniqueGenres([]);
-        setUniqueAuthors([]);
-        setAvailableStates([]);
       } finally {
         setLoading(false);
       }
@@ -153,29 +122,74 @@ const AnonymousBooksAvailablePage = ({ searchQuery, onSelectBookOffer }) => {
     fetchAnonymousOffers();
   }, []);
 
+  const handleLoadMore = async () => {
+    setLoadingMore(true);
+    try {
+      const page = await fetchOffersPage(nextCursor);
+      setAllOffers(prev => [...prev, ...page.offers]);
+      setNextCursor(page.nextCursor);
+    } catch (err) {
+      toast.error(`Failed to load more book offers: ${err.message || "An unexpected error occurred."}`, commonToastOptions);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
+  // Filter options cover every offer loaded so far, so they grow as more pages come in.
+  useEffect(() => {
+    const uniqueGenresSet = new Set(['All']);
+    const uniqueAuthorsSet = new Set(['All']);
+    const map = {};
+
+    allOffers.forEach(offer => {
+      const state = offer.userState;
+      const city = offer.userCity;
+      const area = offer.userArea;
+
+      if (state) {
+        if (!map[state]) {
+          map[state] = {};
+        }
+        if (city) {
+          if (!map[state][city]) {
+            map[state][city] = new Set();
+          }
+          if (area) {
+            map[state][city].add(area);
+          }
+        }
+      }
+
+      if (offer.genre) {
+        uniqueGenresSet.add(offer.genre);
+      }
+      if (offer.author) {
+        uniqueAuthorsSet.add(offer.author);
+      }
+      offer.tags.forEach(tag => uniqueGenresSet.add(tag));
+    });
+
+    setUniqueGenres(Array.from(uniqueGenresSet).sort());
+    setUniqueAuthors(Array.from(uniqueAuthorsSet).sort());
+    setAvailableStates(Object.keys(map).sort());
+    setStateCityAreaMap(map);
+  }, [allOffers]);
+
+  // The selects reset the narrower selections themselves, so a new page of offers leaves them alone.
   useEffect(() => {
     if (selectedState && stateCityAreaMap[selectedState]) {
-      const citiesForState = Object.keys(stateCityAreaMap[selectedState]).sort();
-      setAvailableCities(citiesForState);
-      setSelectedCity('');
-      setSelectedArea('');
+      setAvailableCities(Object.keys(stateCityAreaMap[selectedState]).sort());
     } else {
       setAvailableCities([]);
-      setAvailableAreas([]);
-      setSelectedCity('');
-      setSelectedArea('');
     }
   }, [selectedState, stateCityAreaMap]);
 
 
   useEffect(() => {
     if (selectedState && selectedCity && stateCityAreaMap[selectedState]?.[selectedCity]) {
-      const areasForCity = Array.from(stateCityAreaMap[selectedState][selectedCity]).sort();
-      setAvailableAreas(areasForCity);
-      setSelectedArea('');
+      setAvailableAreas(Array.from(stateCityAreaMap[selectedState][selectedCity]).sort());
     } else {
       setAvailableAreas([]);
-      setSelectedArea('');
     }
   }, [selectedState, selectedCity, stateCityAreaMap]);
 
@@ -223,9 +237,12 @@ const AnonymousBooksAvailablePage = ({ searchQuery, onSelectBookOffer }) => {
     });
 
     setCurrentFilteredOffers(tempFilteredOffers);
-    setCurrentPage(1);
   }, [allOffers, searchQuery, genreFilter, authorFilter, selectedState, selectedCity, selectedArea]);
 
+  useEffect(() => {
+    setCurrentPage(1);
+  }, [searchQuery, genreFilter, authorFilter, selectedState, selectedCity, selectedArea]);
+
 
   useEffect(() => {
     const indexOfLastItem = currentPage * itemsPerPage;
@@ -312,7 +329,7 @@ const AnonymousBooksAvailablePage = ({ searchQuery, onSelectBookOffer }) => {
                     setSelectedState(e.target.value);
                     setSelectedCity('');
                     setSelectedArea('');
-                    // setCurrentPage(1) is handled by main filter useEffect
+                    // setCurrentPage(1) is handled by the page-reset useEffect
                   }}
                   className="p-2 sm:p-3 border border-[#d8c3a5] rounded-full bg-white text-[#171612] text-sm sm:text-base focus:outline-none focus:ring-2 focus:ring-[#f8e0a1] cursor-pointer w-full sm:w-40 lg:w-48"
                 >
@@ -332,7 +349,7 @@ const AnonymousBooksAvailablePage = ({ searchQuery, onSelectBookOffer }) => {
                   onChange={(e) => {
                     setSelectedCity(e.target.value);
                     setSelectedArea('');
-                    // setCurrentPage(1) is handled by main filter useEffect
+                    // setCurrentPage(1) is handled by the page-reset useEffect
                   }}
                   className="p-2 sm:p-3 border border-[#d8c3a5] rounded-full bg-white text-[#171612] text-sm sm:text-base focus:outline-none focus:ring-2 focus:ring-[#f8e0a1] cursor-pointer w-full sm:w-40 lg:w-48"
                   disabled={!selectedState || availableCities.length === 0}
@@ -352,7 +369,7 @@ const AnonymousBooksAvailablePage = ({ searchQuery, onSelectBookOffer }) => {
                   value={selectedArea}
                   onChange={(e) => {
                     setSelectedArea(e.target.value);
-                    // setCurrentPage(1) is handled by main filter useEffect
+                    // setCurrentPage(1) is handled by the page-reset useEffect
                   }}
                   className="p-2 sm:p-3 border border-[#d8c3a5] rounded-full bg-white text-[#171612] text-sm sm:text-base focus:outline-none focus:ring-2 focus:ring-[#f8e0a1] cursor-pointer w-full sm:w-40 lg:w-48"
                   disabled={!selectedCity || availableAreas.length === 0}
@@ -375,7 +392,7 @@ const AnonymousBooksAvailablePage = ({ searchQuery, onSelectBookOffer }) => {
                   value={genreFilter}
                   onChange={(e) => {
                     setGenreFilter(e.target.value);
-                    // setCurrentPage(1) is handled by main filter useEffect
+                    // setCurrentPage(1) is handled by the page-reset useEffect
                   }}
                   className="p-2 sm:p-3 border border-[#d8c3a5] rounded-full bg-white text-[#171612] text-sm sm:text-base focus:outline-none focus:ring-2 focus:ring-[#f8e0a1] cursor-pointer w-full sm:w-40 lg:w-48"
                 >
@@ -394,7 +411,7 @@ const AnonymousBooksAvailablePage = ({ searchQuery, onSelectBookOffer }) => {
                   value={authorFilter}
                   onChange={(e) => {
                     setAuthorFilter(e.target.value);
-                    // setCurrentPage(1) is handled by main filter useEffect
+                    // setCurrentPage(1) is handled by the page-reset useEffect
                   }}
                   className="p-2 sm:p-3 border border-[#d8c3a5] rounded-full bg-white text-[#171612] text-sm sm:text-base focus:outline-none focus:ring-2 focus:ring-[#f8e0a1] cursor-pointer w-full sm:w-40 lg:w-48"
                 >
@@ -469,6 +486,18 @@ const AnonymousBooksAvailablePage = ({ searchQuery, onSelectBookOffer }) => {
                   </button>
                 </div>
               )}
+
+              {nextCursor && (
+                <div className="flex justify-center mt-6">
+                  <button
+                    onClick={handleLoadMore}
+                    disabled={loadingMore}
+                    className="flex min-w-[84px] cursor-pointer items-center justify-center overflow-hidden rounded-full h-10 px-4 bg-[#c2e7a4] text-[#171612] text-sm font-bold leading-normal tracking-[0.015em] disabled:opacity-50 disabled:cursor-not-allowed hover:bg-[#aade85] transition-colors duration-200"
+                  >
+                    {loadingMore ? 'Loading...' : 'Load more offers'}
+                  </button>
+                </div>
+              )}
             </>
           )}
         </>
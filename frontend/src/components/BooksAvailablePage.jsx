@@ -1,8 +1,11 @@
-import React, { useEffect, useState, useCallback } from 'react';
+import React, { useEffect, useState } from 'react';
 import { Link } from 'react-router-dom';
 
 const BooksAvailablePage = ({ searchQuery }) => {
+  const [allBooks, setAllBooks] = useState([]);
   const [books, setBooks] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
 
@@ -35,153 +38,158 @@ const BooksAvailablePage = ({ searchQuery }) => {
     'bg-[#d1c4e9]', // Muted Violet - soft, unique
   ];
 
+  // /books answers one page at a time; nextCursor asks for the page after it and is null once
+  // the catalog has been read to the end.
+  const fetchBooksPage = async (cursor) => {
+    const url = cursor
+      ? `http://localhost:1234/books?cursor=${encodeURIComponent(cursor)}`
+      : 'http://localhost:1234/books';
+    const response = await fetch(url);
+    if (!response.ok) {
+      throw new Error(`HTTP error! status: ${response.status}`);
+    }
+    return response.json();
+  };
+
   useEffect(() => {
-    const fetchInitialFilterData = async () => {
+    const fetchFirstPage = async () => {
+      setLoading(true);
+      setError(null);
+
       try {
-        const response = await fetch('http://localhost:1234/books');
-        if (!response.ok) {
-          throw new Error(`HTTP error! status: ${response.status}`);
-        }
-        const data = await response.json();
+        const page = await fetchBooksPage(null);
+        setAllBooks(page.books);
+        setNextCursor(page.nextCursor);
+      } catch (e) {
+        console.error("Failed to fetch books:", e);
+        setError("Failed to load books. Please try again later.");
+      } finally {
+        setLoading(false);
+      }
+    };
 
-        const uniqueGenres = new Set();
-        const uniqueAuthors = new Set();
-        const map = {};
+    fetchFirstPage();
+  }, []);
 
-        data.forEach(book => {
-          if (book.bookGenre && book.bookGenre.trim() !== '') {
-            uniqueGenres.add(book.bookGenre.trim());
-          }
-          if (book.authorName && book.authorName.trim() !== '') {
-            uniqueAuthors.add(book.authorName.trim());
-          }
+  const handleLoadMore = async () => {
+    setLoadingMore(true);
+    try {
+      const page = await fetchBooksPage(nextCursor);
+      setAllBooks(prev => [...prev, ...page.books]);
+      setNextCursor(page.nextCursor);
+    } catch (e) {
+      console.error("Failed to fetch more books:", e);
+      setError("Failed to load more books. Please try again later.");
+    } finally {
+      setLoadingMore(false);
+    }
+  };
 
-          const state = book.userState?.trim();
-          const city = book.userCity?.trim();
-          const area = book.userArea?.trim();
-
-          if (state) {
-            if (!map[state]) {
-              map[state] = {};
-            }
-            if (city) {
-              if (!map[state][city]) {
-                map[state][city] = new Set();
-              }
-              if (area) {
-                map[state][city].add(area);
-              }
-            }
-          }
-        });
+  // Filter options cover every book loaded so far, so they grow as more pages come in.
+  useEffect(() => {
+    const uniqueGenres = new Set();
+    const uniqueAuthors = new Set();
+    const map = {};
+
+    allBooks.forEach(book => {
+      if (book.bookGenre && book.bookGenre.trim() !== '') {
+        uniqueGenres.add(book.bookGenre.trim());
+      }
+      if (book.authorName && book.authorName.trim() !== '') {
+        uniqueAuthors.add(book.authorName.trim());
+      }
 
-        setGenres(Array.from(uniqueGenres).sort());
-        setAuthors(Array.from(uniqueAuthors).sort());
-        setAvailableStates(Object.keys(map).sort());
-        setStateCityAreaMap(map);
+      const state = book.userState?.trim();
+      const city = book.userCity?.trim();
+      const area = book.userArea?.trim();
 
-      } catch (e) {
-        console.error("Failed to fetch initial data for filters:", e);
-        setError("Failed to load filter options.");
+      if (state) {
+        if (!map[state]) {
+          map[state] = {};
+        }
+        if (city) {
+          if (!map[state][city]) {
+            map[state][city] = new Set();
+          }
+          if (area) {
+            map[state][city].add(area);
+          }
+        }
       }
-    };
+    });
 
-    fetchInitialFilterData();
-  }, []);
+    setGenres(Array.from(uniqueGenres).sort());
+    setAuthors(Array.from(uniqueAuthors).sort());
+    setAvailableStates(Object.keys(map).sort());
+    setStateCityAreaMap(map);
+  }, [allBooks]);
 
+  // The change handlers reset the narrower selections, so a new page of books leaves them alone.
   useEffect(() => {
     if (selectedState && stateCityAreaMap[selectedState]) {
-      const citiesForState = Object.keys(stateCityAreaMap[selectedState]).sort();
-      setAvailableCities(citiesForState);
-      setSelectedCity('');
-      setSelectedArea('');
+      setAvailableCities(Object.keys(stateCityAreaMap[selectedState]).sort());
     } else {
       setAvailableCities([]);
-      setAvailableAreas([]);
-      setSelectedCity('');
-      setSelectedArea('');
     }
   }, [selectedState, stateCityAreaMap]);
 
 
   useEffect(() => {
     if (selectedState && selectedCity && stateCityAreaMap[selectedState]?.[selectedCity]) {
-      const areasForCity = Array.from(stateCityAreaMap[selectedState][selectedCity]).sort();
-      setAvailableAreas(areasForCity);
-      setSelectedArea('');
+      setAvailableAreas(Array.from(stateCityAreaMap[selectedState][selectedCity]).sort());
     } else {
       setAvailableAreas([]);
-      setSelectedArea('');
     }
   }, [selectedState, selectedCity, stateCityAreaMap]);
 
 
-  const fetchAndFilterBooks = useCallback(async () => {
-    setLoading(true);
-    setError(null);
-
-    try {
-      const response = await fetch('http://localhost:1234/books');
-      if (!response.ok) {
-        throw new Error(`HTTP error! status: ${response.status}`);
-      }
-      const allBooks = await response.json();
-
-      const filteredBooks = allBooks.filter(book => {
-        const bookTitle = book.bookTitle || '';
-        const authorName = book.authorName || '';
-        const bookGenre = book.bookGenre || '';
-        const userState = book.userState || '';
-        const userCity = book.userCity || '';
-        const userArea = book.userArea || '';
-
-        const matchesSearch =
-          !searchQuery ||
-          bookTitle.toLowerCase().includes(searchQuery.toLowerCase()) ||
-          authorName.toLowerCase().includes(searchQuery.toLowerCase());
-
-        const matchesGenre = !selectedGenre || bookGenre.toLowerCase() === selectedGenre.toLowerCase();
-
-        const matchesAuthor = !selectedAuthor || authorName.toLowerCase() === selectedAuthor.toLowerCase();
-
-        let matchesLocation = true;
-
-        if (selectedState) {
-          matchesLocation = matchesLocation && userState.toLowerCase() === selectedState.toLowerCase();
-          if (selectedCity) {
-            matchesLocation = matchesLocation && userCity.toLowerCase() === selectedCity.toLowerCase();
-            if (selectedArea) {
-              matchesLocation = matchesLocation && userArea.toLowerCase() === selectedArea.toLowerCase();
-            }
+  useEffect(() => {
+    const filteredBooks = allBooks.filter(book => {
+      const bookTitle = book.bookTitle || '';
+      const authorName = book.authorName || '';
+      const bookGenre = book.bookGenre || '';
+      const userState = book.userState || '';
+      const userCity = book.userCity || '';
+      const userArea = book.userArea || '';
+
+      const matchesSearch =
+        !searchQuery ||
+        bookTitle.toLowerCase().includes(searchQuery.toLowerCase()) ||
+        authorName.toLowerCase().includes(searchQuery.toLowerCase());
+
+      const matchesGenre = !selectedGenre || bookGenre.toLowerCase() === selectedGenre.toLowerCase();
+
+      const matchesAuthor = !selectedAuthor || authorName.toLowerCase() === selectedAuthor.toLowerCase();
+
+      let matchesLocation = true;
+
+      if (selectedState) {
+        matchesLocation = matchesLocation && userState.toLowerCase() === selectedState.toLowerCase();
+        if (selectedCity) {
+          matchesLocation = matchesLocation && userCity.toLowerCase() === selectedCity.toLowerCase();
+          if (selectedArea) {
+            matchesLocation = matchesLocation && userArea.toLowerCase() === selectedArea.toLowerCase();
           }
         }
+      }
 
-        return matchesSearch && matchesGenre && matchesAuthor && matchesLocation;
-      });
-
-      setBooks(filteredBooks);
-
-    } catch (e) {
-      console.error("Failed to fetch or filter books:", e);
-      setError("Failed to load books. Please try again later.");
-    } finally {
-      setLoading(false);
-    }
-  }, [searchQuery, selectedGenre, selectedAuthor, selectedState, selectedCity, selectedArea]);
-
+      return matchesSearch && matchesGenre && matchesAuthor && matchesLocation;
+    });
 
-  useEffect(() => {
-    fetchAndFilterBooks();
-  }, [fetchAndFilterBooks]);
+    setBooks(filteredBooks);
+  }, [allBooks, searchQuery, selectedGenre, selectedAuthor, selectedState, selectedCity, selectedArea]);
 
   const handleStateChange = (e) => {
     const state = e.target.value;
     setSelectedState(state);
+    setSelectedCity('');
+    setSelectedArea('');
   };
 
   const handleCityChange = (e) => {
     const city = e.target.value;
     setSelectedCity(city);
+    setSelectedArea('');
   };
 
   const handleAreaChange = (e) => {
@@ -326,6 +334,18 @@ const BooksAvailablePage = ({ searchQuery }) => {
           <p className="text-[#837c67] col-span-full text-center py-8">No books found matching your search and filters.</p>
         )}
       </div>
+
+      {nextCursor && (
+        <div className="flex justify-center mt-6">
+          <button
+            onClick={handleLoadMore}
+            disabled={loadingMore}
+            className="flex h-10 sm:h-11 shrink-0 items-center justify-center rounded-md bg-[#f3ebd2] px-3 sm:px-4 text-[#5B400D] text-sm sm:text-base font-bold leading-normal tracking-[0.015em] hover:bg-[#e0d8c0] disabled:opacity-50 disabled:cursor-not-allowed transition-colors duration-200"
+          >
+            {loadingMore ? 'Loading...' : 'Load more books'}
+          </button>
+        </div>
+      )}
     </div>
   );
 };
@@ -24,6 +24,42 @@ SUMMARIZATION_MODEL = "Falconsai/text_summarization"
 
 MASTER_TITLE_MODEL = "google/pegasus-xsum" 
 
+def clean_master_title(master_title, titles_list):
+    # --- START POST-PROCESSING ---
+    # Remove common question phrases if they appear at the beginning or end
+    question_starters = ["how do you sum up", "what is", "can you summarize", "what are", "how"]
+    question_enders = ["?", "."] # Check for trailing periods in questions
+
+    # Convert to lowercase for easier matching, but apply changes to original casing
+    lower_master_title = master_title.lower()
+
+    # Check for question starters
+    for phrase in question_starters:
+        if lower_master_title.startswith(phrase):
+            master_title = master_title[len(phrase):].strip()
+            lower_master_title = master_title.lower() # Update lower_master_title after trimming
+            break # Stop after first match
+
+    # Remove trailing question marks or periods if it became a question
+    #if master_title and master_title[-1] in question_enders:
+    #    master_title = master_title[:-1]
+
+    # Re-strip in case trimming left leading/trailing spaces
+    master_title = master_title.strip()
+
+    # Capitalize the first letter of the (possibly modified) title
+    if master_title:
+        master_title = master_title[0].upper() + master_title[1:]
+    
+    # If after all this, it's empty, or still looks like a bad title,
+    # you might have a fallback, or just return it as is and accept the imperfections.
+    # For now, let's just make sure it's not empty.
+    if not master_title and titles_list: # Fallback to first title if all processing fails
+        master_title = titles_list[0] + " (Refined Title Failed)" # Indicate fallback
+    # --- END POST-PROCESSING ---
+    return master_title
+
+
 @app.route('/get_summarized_text', methods=['POST'])
 def get_summarized_text():
     if not request.is_json:
@@ -37,7 +73,12 @@ def get_summarized_text():
     if not data_list or not isinstance(data_list, list) or len(data_list) == 0:
         return jsonify({"error": "Invalid input: 'data_list' must be a non-empty list of strings."}), 400
 
-    text_to_summarize = " ".join(data_list)
+    # Incremental mode: fold only the new notes into the summary the backend already has.
+    previous_summary = data.get('previousSummary')
+    if previous_summary:
+        text_to_summarize = previous_summary + " " + " ".join(data_list)
+    else:
+        text_to_summarize = " ".join(data_list)
     print(f"DEBUG: Input text for summarization: '{text_to_summarize}'")
 
     try:
@@ -87,38 +128,7 @@ def get_master_title():
         if hasattr(response_obj, 'summary_text'):
             master_title = response_obj.summary_text.strip()
 
-            # --- START POST-PROCESSING ---
-            # Remove common question phrases if they appear at the beginning or end
-            question_starters = ["how do you sum up", "what is", "can you summarize", "what are", "how"]
-            question_enders = ["?", "."] # Check for trailing periods in questions
-
-            # Convert to lowercase for easier matching, but apply changes to original casing
-            lower_master_title = master_title.lower()
-
-            # Check for question starters
-            for phrase in question_starters:
-                if lower_master_title.startswith(phrase):
-                    master_title = master_title[len(phrase):].strip()
-                    lower_master_title = master_title.lower() # Update lower_master_title after trimming
-                    break # Stop after first match
-
-            # Remove trailing question marks or periods if it became a question
-            #if master_title and master_title[-1] in question_enders:
-            #    master_title = master_title[:-1]
-
-            # Re-strip in case trimming left leading/trailing spaces
-            master_title = master_title.strip()
-
-            # Capitalize the first letter of the (possibly modified) title
-            if master_title:
-                master_title = master_title[0].upper() + master_title[1:]
-            
-            # If after all this, it's empty, or still looks like a bad title,
-            # you might have a fallback, or just return it as is and accept the imperfections.
-            # For now, let's just make sure it's not empty.
-            if not master_title and titles_list: # Fallback to first title if all processing fails
-                master_title = titles_list[0] + " (Refined Title Failed)" # Indicate fallback
-            # --- END POST-PROCESSING ---
+            master_title = clean_master_title(master_title, titles_list)
 
 
         if master_title:
@@ -136,5 +146,42 @@ def get_master_title():
         print(f"An unexpected error occurred: {e}")
         return jsonify({"error": f"An internal server error occurred: {e}"}), 500
 
+# Backfill contract: one request carries many books, each answered independently.
+# {"items": [{"bookId": 1, "notesList": [...], "titlesList": [...]}]}
+#   -> {"results": [{"bookId": 1, "summary": "...", "masterTitle": "...", "error": null}]}
+@app.route('/summarize_batch', methods=['POST'])
+def summarize_batch():
+    if not request.is_json:
+        return jsonify({"error": "Request must be JSON"}), 400
+
+    items = request.get_json().get('items')
+    if not items or not isinstance(items, list):
+        return jsonify({"error": "Invalid input: 'items' must be a non-empty list."}), 400
+
+    results = []
+    for item in items:
+        book_id = item.get('bookId')
+        notes_list = item.get('notesList') or []
+        titles_list = item.get('titlesList') or []
+        try:
+            summary = None
+            if notes_list:
+                result = client.summarization(" ".join(notes_list), model=SUMMARIZATION_MODEL)
+                summary = getattr(result, 'summary_text', None)
+
+            master_title = None
+            if titles_list:
+                prompt = f"Generate a concise master title for the following topics: {'. '.join(titles_list)}"
+                result = client.summarization(prompt, model=MASTER_TITLE_MODEL)
+                if hasattr(result, 'summary_text'):
+                    master_title = clean_master_title(result.summary_text.strip(), titles_list) or None
+
+            results.append({"bookId": book_id, "summary": summary, "masterTitle": master_title, "error": None})
+        except Exception as e:
+            print(f"Batch item for bookId {book_id} failed: {e}")
+            results.append({"bookId": book_id, "summary": None, "masterTitle": None, "error": str(e)})
+
+    return jsonify({"results": results}), 200
+
 if __name__ == '__main__':
     app.run(host='0.0.0.0', port=5000, debug=True)
\ No newline at end of file
@@ -0,0 +1,74 @@
+"""Stand-in for app.py with the same endpoints and no model or HF_TOKEN, for local runs and tests.
+
+Summaries are the previous summary (if any) plus the first sentence of each new note, capped in
+length; the master title is the most frequent title. Responses are deterministic.
+
+    python stub_server.py [port]
+"""
+import sys
+from collections import Counter
+
+from flask import Flask, request, jsonify
+
+app = Flask(__name__)
+
+MAX_SUMMARY_LENGTH = 500
+
+
+def first_sentence(text):
+    text = text.strip()
+    end = text.find(". ")
+    return text if end == -1 else text[:end + 1]
+
+
+@app.route('/get_summarized_text', methods=['POST'])
+def get_summarized_text():
+    data = request.get_json(silent=True) or {}
+    data_list = data.get('notesList')
+    if not data_list or not isinstance(data_list, list):
+        return jsonify({"error": "Invalid input: 'notesList' must be a non-empty list of strings."}), 400
+
+    parts = [data['previousSummary']] if data.get('previousSummary') else []
+    parts += [first_sentence(note) for note in data_list if note and note.strip()]
+    summary = " ".join(parts)[:MAX_SUMMARY_LENGTH]
+    return jsonify({"summary": summary}), 200
+
+
+@app.route('/get_master_title', methods=['POST'])
+def get_master_title():
+    data = request.get_json(silent=True) or {}
+    titles_list = data.get('titlesList')
+    if not titles_list or not isinstance(titles_list, list):
+        return jsonify({"error": "Invalid input: 'titlesList' must be a non-empty list of strings."}), 400
+
+    return jsonify({"master_title": most_common_title(titles_list)}), 200
+
+
+@app.route('/summarize_batch', methods=['POST'])
+def summarize_batch():
+    items = (request.get_json(silent=True) or {}).get('items')
+    if not items or not isinstance(items, list):
+        return jsonify({"error": "Invalid input: 'items' must be a non-empty list."}), 400
+
+    results = []
+    for item in items:
+        notes_list = item.get('notesList') or []
+        titles_list = item.get('titlesList') or []
+        summary = " ".join(first_sentence(note) for note in notes_list if note and note.strip())[:MAX_SUMMARY_LENGTH]
+        results.append({
+            "bookId": item.get('bookId'),
+            "summary": summary or None,
+            "masterTitle": most_common_title(titles_list) if titles_list else None,
+            "error": None,
+        })
+    return jsonify({"results": results}), 200
+
+
+def most_common_title(titles_list):
+    title, _ = Counter(title.strip() for title in titles_list).most_common(1)[0]
+    return title
+
+
+if __name__ == '__main__':
+    port = int(sys.argv[1]) if len(sys.argv) > 1 else 5000
+    app.run(host='127.0.0.1', port=port)